@@ -0,0 +1,46 @@
+#!/usr/bin/env sh
+# Compares the time of single-file compilations with and without the startup archive of `./gradlew aotCache`.
+# Usage: benchmark/startup.sh [runs] [input]
+set -e
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RUNS="${1:-20}"
+INPUT="${2:-$ROOT/src/aot/training/pressure.l1}"
+LIB="$ROOT/build/install/compiler/lib"
+OUTPUT="$(mktemp -d)"
+trap 'rm -rf "$OUTPUT"' EXIT
+# measure the launcher, not a compile server
+unset COMPILER_SOCKET
+
+if [ -f "$LIB/compiler.aot" ]; then
+    ARCHIVE="$LIB/compiler.aot"
+elif [ -f "$LIB/compiler.jsa" ]; then
+    ARCHIVE="$LIB/compiler.jsa"
+else
+    echo "no startup archive in $LIB, run ./gradlew installDist aotCache first" >&2
+    exit 1
+fi
+
+# prints the mean wall clock time of a compilation in milliseconds
+measure() {
+    start=$(date +%s%N)
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        "$ROOT/run.sh" "$INPUT" "$OUTPUT/a.out" > /dev/null 2>&1
+        i=$((i + 1))
+    done
+    end=$(date +%s%N)
+    echo $(((end - start) / RUNS / 1000000))
+}
+
+# one run each to warm up the file system cache
+"$ROOT/run.sh" "$INPUT" "$OUTPUT/a.out" > /dev/null 2>&1
+with=$(measure)
+# hide the archive from the start script, restoring it even if a run fails
+mv "$ARCHIVE" "$ARCHIVE.off"
+trap 'mv "$ARCHIVE.off" "$ARCHIVE"; rm -rf "$OUTPUT"' EXIT
+"$ROOT/run.sh" "$INPUT" "$OUTPUT/a.out" > /dev/null 2>&1
+without=$(measure)
+
+echo "$INPUT, mean of $RUNS runs"
+echo "without archive: $without ms"
+echo "with $(basename "$ARCHIVE"): $with ms"
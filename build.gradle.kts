@@ -1,6 +1,7 @@
 plugins {
     id("java")
     application
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "edu.kit.kastel.logic"
@@ -19,6 +20,7 @@ dependencies {
     implementation("org.jspecify:jspecify:1.0.0")
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 java {
@@ -27,4 +29,95 @@ java {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Benchmarks of the compiler phases in `src/jmh`. Select some with `-Pjmh.includes=<regex>`,
+// the results are written to `build/results/jmh/results.json`.
+jmh {
+    jmhVersion = "1.37"
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+    fork = 2
+    warmupIterations = 5
+    warmup = "1s"
+    iterations = 5
+    timeOnIteration = "1s"
+    benchmarkMode = listOf("avgt")
+    timeUnit = "us"
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+}
+
+// Startup archives: a training run compiles the corpus in `src/aot/training` with the installed launcher,
+// recording the classes it loads. By default this creates an ahead-of-time cache (JEP 483, JDK 24),
+// with `-Paot=cds` a dynamic AppCDS archive instead. The start script uses whichever archive exists.
+// `installDist` removes the archive, as it is only valid for the jars it was created with.
+val archiveKind = providers.gradleProperty("aot").getOrElse("aot")
+val aotDirectory = layout.buildDirectory.dir("aot")
+val installDirectory = tasks.installDist.map { it.destinationDir }
+val toolchainHome = javaToolchains.launcherFor(java.toolchain).map { it.metadata.installationPath.asFile }
+
+fun Exec.runInstalledCompiler(vararg jvmOptions: String) {
+    executable = installDirectory.get().resolve("bin/compiler").path
+    doFirst {
+        environment("JAVA_HOME", toolchainHome.get().path)
+        environment("JAVA_OPTS", jvmOptions.joinToString(" ") { "\"$it\"" })
+    }
+}
+
+val aotTraining by tasks.registering(Exec::class) {
+    description = "Compiles the training corpus while recording the classes used for the startup archive."
+    group = "distribution"
+    dependsOn(tasks.installDist)
+    val lib = installDirectory.get().resolve("lib")
+    val configuration = aotDirectory.get().file("compiler.aotconf").asFile
+    val manifest = aotDirectory.get().file("training.manifest").asFile
+    doFirst {
+        lib.resolve("compiler.aot").delete()
+        lib.resolve("compiler.jsa").delete()
+        val output = aotDirectory.get().dir("out").asFile
+        output.mkdirs()
+        manifest.writeText(
+            fileTree("src/aot/training") { include("*.l1") }.files.sorted().joinToString("") {
+                "${it.absolutePath} ${output.resolve(it.nameWithoutExtension).absolutePath}\n"
+            }
+        )
+    }
+    when (archiveKind) {
+        "aot" -> runInstalledCompiler("-XX:AOTMode=record", "-XX:AOTConfiguration=$configuration")
+        "cds" -> runInstalledCompiler("-XX:ArchiveClassesAtExit=${lib.resolve("compiler.jsa")}")
+        else -> throw GradleException("unknown archive kind '$archiveKind', expected 'aot' or 'cds'")
+    }
+    args("--batch", manifest.path)
+}
+
+val aotCache by tasks.registering(Exec::class) {
+    description = "Creates the startup archive used by the start script of installDist."
+    group = "distribution"
+    dependsOn(aotTraining)
+    onlyIf("the AppCDS archive is written by the training run itself") { archiveKind == "aot" }
+    val configuration = aotDirectory.get().file("compiler.aotconf").asFile
+    val cache = installDirectory.get().resolve("lib/compiler.aot")
+    // the command line has to match the training run, the program itself is not run
+    runInstalledCompiler("-XX:AOTMode=create", "-XX:AOTConfiguration=$configuration", "-XX:AOTCache=$cache")
+}
+
+tasks.startScripts {
+    doLast {
+        val exec = "exec \"\$JAVACMD\" \"\$@\""
+        val script = unixScript.readText()
+        check(exec in script) { "unexpected start script, can't add the startup archive" }
+        unixScript.writeText(
+            script.replace(
+                exec,
+                """
+                if [ -f "${'$'}APP_HOME/lib/compiler.aot" ]; then
+                    set -- "-XX:AOTCache=${'$'}APP_HOME/lib/compiler.aot" "${'$'}@"
+                elif [ -f "${'$'}APP_HOME/lib/compiler.jsa" ]; then
+                    set -- "-XX:SharedArchiveFile=${'$'}APP_HOME/lib/compiler.jsa" "${'$'}@"
+                fi
+
+                """.trimIndent() + exec
+            )
+        )
+    }
+}
@@ -1,3 +1,7 @@
 #!/usr/bin/env sh
 BIN_DIR="$(dirname "$0")/build/install/compiler/bin"
+if [ -n "$COMPILER_SOCKET" ]; then
+    # forward to a server started with `compiler --server $COMPILER_SOCKET`
+    exec $BIN_DIR/compiler --client "$COMPILER_SOCKET" "$@"
+fi
 $BIN_DIR/compiler "$@"
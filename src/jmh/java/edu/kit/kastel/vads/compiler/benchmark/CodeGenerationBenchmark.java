@@ -0,0 +1,19 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.backend.aasm.CodeGenerator;
+import edu.kit.kastel.vads.compiler.backend.x86.X86CodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/// Generates code for the translated program, including register allocation.
+public class CodeGenerationBenchmark {
+
+    @Benchmark
+    public String abstractAssembly(Program program) {
+        return new CodeGenerator().generateCode(program.graphs);
+    }
+
+    @Benchmark
+    public String x86(Program program) {
+        return new X86CodeGenerator().generateCode(program.graphs);
+    }
+}
@@ -0,0 +1,23 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.lexer.Token;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+
+/// Splits the whole program into tokens with [Lexer#nextToken].
+public class LexerBenchmark {
+
+    @Benchmark
+    public int nextToken(Program program, Blackhole blackhole) {
+        Lexer lexer = Lexer.forString(program.source);
+        int tokens = 0;
+        for (Optional<Token> token = lexer.nextToken(); token.isPresent(); token = lexer.nextToken()) {
+            blackhole.consume(token.get());
+            tokens++;
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,34 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import java.util.Random;
+
+/// Relative weights of the binary operators in generated programs, see [ProgramGenerator].
+public enum OperatorMix {
+    UNIFORM(1, 1, 1, 1, 1),
+    /// only operators that never trap
+    ADDITIVE(3, 3, 1, 0, 0),
+    /// mostly divisions and remainders, which need fixed registers on x86
+    DIVISION(1, 1, 1, 3, 3);
+
+    private static final String[] OPERATORS = {"+", "-", "*", "/", "%"};
+
+    private final int[] weights;
+    private final int total;
+
+    OperatorMix(int plus, int minus, int times, int divide, int modulo) {
+        this.weights = new int[] {plus, minus, times, divide, modulo};
+        this.total = plus + minus + times + divide + modulo;
+    }
+
+    /// {@return a binary operator, e.g. `+`, picked according to the weights}
+    String pick(Random random) {
+        int value = random.nextInt(this.total);
+        for (int i = 0; i < this.weights.length; i++) {
+            value -= this.weights[i];
+            if (value < 0) {
+                return OPERATORS[i];
+            }
+        }
+        throw new AssertionError("weights do not add up to " + this.total);
+    }
+}
@@ -0,0 +1,16 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/// Parses the program with [Parser#parseProgram()], including the lexing it triggers.
+public class ParserBenchmark {
+
+    @Benchmark
+    public ProgramTree parseProgram(Program program) {
+        return new Parser(new TokenSource(Lexer.forString(program.source))).parseProgram();
+    }
+}
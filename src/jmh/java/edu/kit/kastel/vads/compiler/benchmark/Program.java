@@ -0,0 +1,52 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.SsaTranslation;
+import edu.kit.kastel.vads.compiler.ir.optimize.LocalValueNumbering;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.semantic.SemanticAnalysis;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/// The program compiled by all benchmarks, together with the input of each phase.
+/// Each phase gets the output of the previous phases, which is computed once per trial.
+@State(Scope.Benchmark)
+public class Program {
+    @Param({"10", "1000"})
+    public int statements;
+    @Param({"2", "16"})
+    public int depth;
+    @Param({"4", "64"})
+    public int variables;
+    @Param("UNIFORM")
+    public OperatorMix operators;
+    @Param("1")
+    public long seed;
+
+    String source;
+    ProgramTree tree;
+    /// translated with [LocalValueNumbering] only, as constant folding would leave nothing for the backend
+    List<IrGraph> graphs;
+
+    @Setup
+    public void setUp() {
+        this.source = new ProgramGenerator(
+            this.seed, this.statements, this.depth, this.variables, this.operators
+        ).generate();
+        this.tree = new Parser(new TokenSource(Lexer.forString(this.source))).parseProgram();
+        new SemanticAnalysis(this.tree).analyze();
+        this.graphs = new ArrayList<>();
+        for (FunctionTree function : this.tree.topLevelTrees()) {
+            this.graphs.add(new SsaTranslation(function, new LocalValueNumbering()).translate());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/// Generates random programs that are accepted by the parser and the semantic analysis.
+/// The same arguments always produce the same program.
+///
+/// Variables are declared between the assignments, some without an initializer, and are only read after
+/// they are initialized. Each assigned expression has exactly the requested nesting depth: one operand is
+/// nested all the way down, the other ones are at most two levels deep, so the size of a program grows
+/// linearly with the depth. All variables are summed up in the return statement, so they are live at the
+/// same time. Negations, parenthesized lvalues, decimal and hexadecimal literals, and line and nested block
+/// comments are sprinkled in.
+///
+/// `java ProgramGenerator <seed> <statements> <depth> <variables> [<operator mix>]` prints a program,
+/// e.g. to pass it to the compiler.
+public final class ProgramGenerator {
+    private static final String[] PREFIXES = {"v", "tmp_", "Acc"};
+    private static final String[] COMMENTS = {"// ", "/* ", "/* /* nested */ "};
+
+    private final Random random;
+    private final int statements;
+    private final int depth;
+    private final int variables;
+    private final OperatorMix operators;
+    private final StringBuilder builder = new StringBuilder();
+    private final List<String> initialized = new ArrayList<>();
+    private final List<String> uninitialized = new ArrayList<>();
+    private int statementCount;
+
+    /// @param statements the number of assignments, in addition to the declarations and the return
+    /// @param depth the nesting depth of each assigned expression
+    /// @param variables the number of variables, at least one
+    public ProgramGenerator(long seed, int statements, int depth, int variables, OperatorMix operators) {
+        if (variables < 1) {
+            throw new IllegalArgumentException("at least one variable is needed, got " + variables);
+        }
+        this.random = new Random(seed);
+        this.statements = statements;
+        this.depth = depth;
+        this.variables = variables;
+        this.operators = operators;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 4 && args.length != 5) {
+            System.err.println("Usage: ProgramGenerator <seed> <statements> <depth> <variables> [<operator mix>]");
+            System.exit(3);
+        }
+        OperatorMix operators = args.length == 5 ? OperatorMix.valueOf(args[4]) : OperatorMix.UNIFORM;
+        System.out.print(new ProgramGenerator(
+            Long.parseLong(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+            operators
+        ).generate());
+    }
+
+    /// Generates the program. Can only be called once.
+    public String generate() {
+        this.builder.append("int main() {\n");
+        // the first variable is initialized right away, so there is always something to read
+        declare(true);
+        int declared = 1;
+        for (int i = 0; i < this.statements; i++) {
+            // spread the remaining declarations evenly over the assignments
+            while (declared < this.variables && (long) declared * this.statements <= (long) i * this.variables) {
+                declare(this.random.nextInt(4) != 0);
+                declared++;
+            }
+            assignment();
+        }
+        while (declared < this.variables) {
+            declare(true);
+            declared++;
+        }
+        while (!this.uninitialized.isEmpty()) {
+            String variable = this.uninitialized.removeLast();
+            statement(variable + " = " + expression(0));
+            this.initialized.add(variable);
+        }
+        this.builder.append("  return ").append(String.join(" + ", this.initialized)).append(";\n}\n");
+        return this.builder.toString();
+    }
+
+    private void declare(boolean initialize) {
+        String variable = PREFIXES[(this.initialized.size() + this.uninitialized.size()) % PREFIXES.length]
+            + (this.initialized.size() + this.uninitialized.size());
+        if (initialize) {
+            // the initializer must not read the variable itself
+            statement("int " + variable + " = " + expression(Math.min(this.depth, 2)));
+            this.initialized.add(variable);
+        } else {
+            statement("int " + variable);
+            this.uninitialized.add(variable);
+        }
+    }
+
+    private void assignment() {
+        // initialize pending variables first, otherwise they could only be assigned by `=`
+        if (!this.uninitialized.isEmpty() && this.random.nextInt(2) == 0) {
+            String variable = this.uninitialized.removeFirst();
+            statement(variable + " = " + expression(this.depth));
+            this.initialized.add(variable);
+            return;
+        }
+        String target = pick(this.initialized);
+        if (this.random.nextInt(8) == 0) {
+            target = "(" + target + ")";
+        }
+        String assignment = this.random.nextInt(3) == 0 ? "=" : this.operators.pick(this.random) + "=";
+        statement(target + " " + assignment + " " + expression(this.depth));
+    }
+
+    private void statement(String statement) {
+        if (this.random.nextInt(8) == 0) {
+            String comment = COMMENTS[this.random.nextInt(COMMENTS.length)];
+            this.builder.append("  ").append(comment).append("statement ").append(this.statementCount)
+                .append(comment.startsWith("//") ? "\n" : " */\n");
+        }
+        this.builder.append("  ").append(statement).append(";\n");
+        this.statementCount++;
+    }
+
+    private String expression(int depth) {
+        StringBuilder expression = new StringBuilder();
+        expression(expression, depth);
+        return expression.toString();
+    }
+
+    private void expression(StringBuilder expression, int depth) {
+        if (depth == 0) {
+            leaf(expression);
+            return;
+        }
+        boolean negate = this.random.nextInt(8) == 0;
+        if (negate) {
+            expression.append("-");
+        }
+        expression.append('(');
+        int shallow = this.random.nextInt(Math.min(depth, 3));
+        // the nested operand is on either side, so both recursive calls of the parser are exercised
+        if (this.random.nextBoolean()) {
+            expression(expression, depth - 1);
+            expression.append(' ').append(this.operators.pick(this.random)).append(' ');
+            expression(expression, shallow);
+        } else {
+            expression(expression, shallow);
+            expression.append(' ').append(this.operators.pick(this.random)).append(' ');
+            expression(expression, depth - 1);
+        }
+        expression.append(')');
+    }
+
+    private void leaf(StringBuilder expression) {
+        // only literals until the first variable is initialized
+        switch (this.random.nextInt(this.initialized.isEmpty() ? 8 : 24)) {
+            case 0, 1, 2, 3, 4 -> expression.append(this.random.nextInt(100));
+            case 5 -> expression.append(this.random.nextInt() & Integer.MAX_VALUE);
+            case 6 -> expression.append("0x").append(Integer.toHexString(this.random.nextInt()));
+            case 7 -> expression.append("-2147483648");
+            case 8, 9 -> expression.append("-").append(pick(this.initialized));
+            default -> expression.append(pick(this.initialized));
+        }
+    }
+
+    private String pick(List<String> variables) {
+        return variables.get(this.random.nextInt(variables.size()));
+    }
+}
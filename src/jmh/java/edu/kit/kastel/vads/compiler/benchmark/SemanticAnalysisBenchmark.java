@@ -0,0 +1,13 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.semantic.SemanticAnalysis;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/// Analyzes the parsed program with [SemanticAnalysis#analyze].
+public class SemanticAnalysisBenchmark {
+
+    @Benchmark
+    public void analyze(Program program) {
+        new SemanticAnalysis(program.tree).analyze();
+    }
+}
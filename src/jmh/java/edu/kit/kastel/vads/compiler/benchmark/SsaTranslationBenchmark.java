@@ -0,0 +1,18 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.ir.SsaTranslation;
+import edu.kit.kastel.vads.compiler.ir.optimize.LocalValueNumbering;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+/// Translates the parsed program with [SsaTranslation#translate], using [LocalValueNumbering].
+public class SsaTranslationBenchmark {
+
+    @Benchmark
+    public void translate(Program program, Blackhole blackhole) {
+        for (FunctionTree function : program.tree.topLevelTrees()) {
+            blackhole.consume(new SsaTranslation(function, new LocalValueNumbering()).translate());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+/// Creates a [TokenSource] and consumes all of its tokens. As tokens are read lazily,
+/// this is the overhead of the token source on top of [LexerBenchmark].
+public class TokenSourceBenchmark {
+
+    @Benchmark
+    public int consumeAll(Program program, Blackhole blackhole) {
+        TokenSource tokenSource = new TokenSource(Lexer.forString(program.source));
+        int tokens = 0;
+        while (tokenSource.hasMore()) {
+            blackhole.consume(tokenSource.consume());
+            tokens++;
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,84 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/// A single file of a batch compilation, see [Main#batch].
+record BatchJob(Path input, Path output) {
+    private static final String EXTENSION = ".l1";
+
+    /// @param diagnostics everything the assembler and linker printed for this job
+    record Report(CompilationResult result, String diagnostics) {
+    }
+
+    /// {@return the jobs for all `.l1` files in `source` if it is a directory, or the jobs listed in `source`}
+    static List<BatchJob> read(Path source) throws IOException {
+        List<BatchJob> jobs = new ArrayList<>();
+        if (Files.isDirectory(source)) {
+            try (Stream<Path> files = Files.list(source)) {
+                files.filter(file -> file.getFileName().toString().endsWith(EXTENSION))
+                    .sorted()
+                    .forEach(file -> jobs.add(new BatchJob(file, withoutExtension(file))));
+            }
+            return jobs;
+        }
+        Path base = source.toAbsolutePath().getParent();
+        for (String line : Files.readAllLines(source)) {
+            String[] parts = line.strip().split("\\s+");
+            if (parts[0].isEmpty()) {
+                continue;
+            }
+            Path input = base.resolve(parts[0]);
+            jobs.add(new BatchJob(input, parts.length > 1 ? base.resolve(parts[1]) : withoutExtension(input)));
+        }
+        return jobs;
+    }
+
+    private static Path withoutExtension(Path file) {
+        String name = file.getFileName().toString();
+        String stem = name.endsWith(EXTENSION) ? name.substring(0, name.length() - EXTENSION.length()) : name + ".out";
+        return file.resolveSibling(stem);
+    }
+
+    /// Compiles this job, also reporting crashes of the compiler as [CompilationResult.Failure], so one file
+    /// can't abort the whole batch. The output of the assembler and linker is collected per job, so the
+    /// output of files linked at the same time doesn't interleave.
+    Report compile(Compiler compiler) {
+        ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+        CompilationResult result;
+        try {
+            result = compiler.compile(this.input, this.output, diagnostics);
+        } catch (RuntimeException | AssertionError e) {
+            result = new CompilationResult.Failure(e);
+        }
+        return new Report(result, diagnostics.toString(StandardCharsets.UTF_8));
+    }
+
+    static Report await(Future<Report> report) {
+        try {
+            return report.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Report(new CompilationResult.Failure(e), "");
+        } catch (ExecutionException e) {
+            return new Report(new CompilationResult.Failure(e.getCause()), "");
+        }
+    }
+
+    static String describe(CompilationResult result) {
+        return switch (result) {
+            case CompilationResult.Success _ -> "ok";
+            case CompilationResult.ParseError(var e) -> "parse error: " + e.getMessage();
+            case CompilationResult.SemanticError(var e) -> "semantic error: " + e.getMessage();
+            case CompilationResult.Failure(var e) -> "failed: " + e;
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package edu.kit.kastel.vads.compiler;
+
+import edu.kit.kastel.vads.compiler.backend.regalloc.AllocationStatistics;
+import edu.kit.kastel.vads.compiler.backend.regalloc.RegisterAllocator;
+import edu.kit.kastel.vads.compiler.backend.x86.X86CodeGenerator;
+import edu.kit.kastel.vads.compiler.backend.x86.X86RegisterAllocator;
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.SsaTranslation;
+import edu.kit.kastel.vads.compiler.ir.optimize.GlobalValueNumbering;
+import edu.kit.kastel.vads.compiler.ir.optimize.GraphOptimizer;
+import edu.kit.kastel.vads.compiler.ir.optimize.OptimizationLevel;
+import edu.kit.kastel.vads.compiler.ir.optimize.PassManager;
+import edu.kit.kastel.vads.compiler.ir.optimize.PassStatistics;
+import edu.kit.kastel.vads.compiler.ir.util.YCompPrinter;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.semantic.SemanticAnalysis;
+import edu.kit.kastel.vads.compiler.semantic.SemanticException;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/// Compiles a program one function at a time, so the memory needed is proportional to the largest function
+/// rather than to the whole program.
+///
+/// Each function is analyzed as soon as it is parsed. Translation, optimization and code generation run on
+/// the common fork-join pool, with at most one function per processor in flight. The assembly is written in
+/// source order whenever the oldest function is done, after which its tree and graph are no longer referenced.
+final class CompilationPipeline {
+    private final OptimizationLevel level;
+    private final boolean collectPassStatistics;
+    private final @Nullable String allocatorKind;
+    private final @Nullable Path graphDirectory;
+    private final int window = Runtime.getRuntime().availableProcessors();
+    private final List<PassStatistics> passStatistics = new ArrayList<>();
+    private final List<AllocationStatistics> allocationStatistics = new ArrayList<>();
+    private int valueNumberingHits;
+    private int valueNumberingMisses;
+    private @Nullable SemanticException semanticError;
+
+    /// @param allocatorKind `chordal`, `naive` or `null` for linear scan, see [X86RegisterAllocator]
+    /// @param graphDirectory where to dump the graphs before code generation, `null` to not dump them
+    CompilationPipeline(
+        OptimizationLevel level,
+        boolean collectPassStatistics,
+        @Nullable String allocatorKind,
+        @Nullable Path graphDirectory
+    ) {
+        this.level = level;
+        this.collectPassStatistics = collectPassStatistics;
+        this.allocatorKind = allocatorKind;
+        this.graphDirectory = graphDirectory;
+    }
+
+    /// Writes the assembly of all functions produced by `parser` to `output`.
+    ///
+    /// Parse errors are thrown immediately. Semantic errors are only thrown once the whole input
+    /// is parsed, so a parse error later in the input still takes precedence.
+    void compile(Parser parser, Writer output) throws IOException {
+        output.write(X86CodeGenerator.prelude());
+        Deque<Future<CompiledFunction>> inFlight = new ArrayDeque<>();
+        try {
+            parser.parseProgram(function -> {
+                if (analyze(function)) {
+                    inFlight.add(ForkJoinPool.commonPool().submit(() -> compile(function)));
+                }
+                if (inFlight.size() > this.window) {
+                    write(inFlight.poll(), output);
+                }
+            });
+            if (this.semanticError != null) {
+                throw this.semanticError;
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), output);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /// {@return whether the function is valid and no earlier function was invalid}
+    private boolean analyze(FunctionTree function) {
+        if (this.semanticError != null) {
+            return false;
+        }
+        try {
+            new SemanticAnalysis(function).analyze();
+            return true;
+        } catch (SemanticException e) {
+            this.semanticError = e;
+            return false;
+        }
+    }
+
+    private CompiledFunction compile(FunctionTree function) throws IOException {
+        SsaTranslation translation = new SsaTranslation(function, this.level.constructionOptimizer());
+        IrGraph graph = translation.translate();
+        PassManager passManager = this.level.passManager(this.collectPassStatistics);
+        passManager.optimize(graph);
+        if (this.graphDirectory != null) {
+            Files.writeString(
+                this.graphDirectory.resolve(graph.name() + "-before-codegen.vcg"),
+                YCompPrinter.print(graph)
+            );
+        }
+        RegisterAllocator allocator = switch (this.allocatorKind) {
+            case "chordal" -> X86RegisterAllocator.chordal();
+            case "naive" -> new X86RegisterAllocator();
+            case null, default -> X86RegisterAllocator.linearScan();
+        };
+        String assembly = new X86CodeGenerator(allocator).generateFunction(graph);
+        return new CompiledFunction(assembly, passManager, allocator);
+    }
+
+    private void write(Future<CompiledFunction> future, Writer output) {
+        CompiledFunction function = await(future);
+        try {
+            output.write(function.assembly());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.passStatistics.addAll(function.passManager().statistics());
+        this.allocationStatistics.addAll(function.allocator().statistics());
+        for (GraphOptimizer pass : function.passManager().passes()) {
+            if (pass instanceof GlobalValueNumbering valueNumbering) {
+                this.valueNumberingHits += valueNumbering.hits();
+                this.valueNumberingMisses += valueNumbering.misses();
+            }
+        }
+    }
+
+    private static CompiledFunction await(Future<CompiledFunction> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while compiling", e);
+        } catch (ExecutionException e) {
+            switch (e.getCause()) {
+                case IOException io -> throw new UncheckedIOException(io);
+                case RuntimeException runtime -> throw runtime;
+                case Error error -> throw error;
+                default -> throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /// {@return the statistics of all passes, in source order}
+    List<PassStatistics> passStatistics() {
+        return List.copyOf(this.passStatistics);
+    }
+
+    /// {@return the statistics of all register allocations, in source order}
+    List<AllocationStatistics> allocationStatistics() {
+        return List.copyOf(this.allocationStatistics);
+    }
+
+    int valueNumberingHits() {
+        return this.valueNumberingHits;
+    }
+
+    int valueNumberingMisses() {
+        return this.valueNumberingMisses;
+    }
+
+    private record CompiledFunction(String assembly, PassManager passManager, RegisterAllocator allocator) {
+    }
+}
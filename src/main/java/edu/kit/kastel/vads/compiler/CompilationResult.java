@@ -0,0 +1,59 @@
+package edu.kit.kastel.vads.compiler;
+
+import edu.kit.kastel.vads.compiler.backend.regalloc.AllocationStatistics;
+import edu.kit.kastel.vads.compiler.ir.optimize.PassStatistics;
+import edu.kit.kastel.vads.compiler.parser.ParseException;
+import edu.kit.kastel.vads.compiler.semantic.SemanticException;
+
+import java.util.List;
+
+/// The outcome of compiling a single file with [Compiler].
+public sealed interface CompilationResult {
+
+    /// {@return the exit code the command line compiler uses for this result}
+    int exitCode();
+
+    /// @param passStatistics the statistics of each pass run, empty unless requested
+    /// @param allocationStatistics the statistics of each register allocation
+    /// @param valueNumberingHits the number of nodes global value numbering replaced
+    /// @param valueNumberingMisses the number of nodes global value numbering kept
+    record Success(
+        List<PassStatistics> passStatistics,
+        List<AllocationStatistics> allocationStatistics,
+        int valueNumberingHits,
+        int valueNumberingMisses
+    ) implements CompilationResult {
+        public Success {
+            passStatistics = List.copyOf(passStatistics);
+            allocationStatistics = List.copyOf(allocationStatistics);
+        }
+
+        @Override
+        public int exitCode() {
+            return 0;
+        }
+    }
+
+    record ParseError(ParseException exception) implements CompilationResult {
+        @Override
+        public int exitCode() {
+            return 42;
+        }
+    }
+
+    record SemanticError(SemanticException exception) implements CompilationResult {
+        @Override
+        public int exitCode() {
+            return 7;
+        }
+    }
+
+    /// The input could not be read, the output could not be written, the assembler failed,
+    /// or the compiler itself crashed.
+    record Failure(Throwable exception) implements CompilationResult {
+        @Override
+        public int exitCode() {
+            return 1;
+        }
+    }
+}
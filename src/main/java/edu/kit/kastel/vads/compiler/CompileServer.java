@@ -0,0 +1,124 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.SocketException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/// Keeps a compiler running behind a Unix domain socket, so compiling a file doesn't pay for starting
+/// and warming up a new JVM.
+///
+/// A request consists of the working directory of the client and its command line arguments, a response
+/// of everything the compiler printed as diagnostics followed by the exit code, see [Main#run].
+/// Each request is handled on its own virtual thread. Options given as environment variables or system
+/// properties are taken from the server, not from the client.
+final class CompileServer {
+    // the file type bits of st_mode and their value for sockets, see stat(2)
+    private static final int FILE_TYPE = 0170000;
+    private static final int SOCKET_TYPE = 0140000;
+
+    private CompileServer() {
+
+    }
+
+    /// Serves requests on `socket` until the process is terminated.
+    /// A socket left behind by a server that is no longer running is replaced.
+    ///
+    /// @throws FileAlreadyExistsException if `socket` is not a stale socket, e.g. a server is listening on it
+    static void serve(Path socket) throws IOException {
+        removeStaleSocket(socket);
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            socket.toFile().deleteOnExit();
+            while (true) {
+                SocketChannel client = server.accept();
+                executor.execute(() -> handle(client));
+            }
+        }
+    }
+
+    private static void removeStaleSocket(Path socket) throws IOException {
+        if (!Files.exists(socket, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        int mode = (int) Files.getAttribute(socket, "unix:mode", LinkOption.NOFOLLOW_LINKS);
+        if ((mode & FILE_TYPE) != SOCKET_TYPE) {
+            throw new FileAlreadyExistsException(socket.toString(), null, "not a socket");
+        }
+        try (SocketChannel _ = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            throw new FileAlreadyExistsException(socket.toString(), null, "a server is already listening");
+        } catch (SocketException e) {
+            // nobody accepts connections anymore
+            Files.delete(socket);
+        }
+    }
+
+    private static void handle(SocketChannel client) {
+        try (client;
+             DataInputStream in = new DataInputStream(Channels.newInputStream(client));
+             DataOutputStream out = new DataOutputStream(Channels.newOutputStream(client))) {
+            Path workingDirectory = Path.of(in.readUTF());
+            String[] args = new String[in.readInt()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = in.readUTF();
+            }
+            ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+            int exitCode;
+            try (PrintStream err = new PrintStream(diagnostics, true, StandardCharsets.UTF_8)) {
+                try {
+                    exitCode = Main.run(workingDirectory, args, err);
+                } catch (Throwable e) {
+                    // the server must survive broken requests and compiler bugs, e.g. a stack overflow
+                    // on deeply nested expressions, and the client still needs its response
+                    e.printStackTrace(err);
+                    exitCode = 1;
+                }
+            }
+            out.writeInt(diagnostics.size());
+            diagnostics.writeTo(out);
+            out.writeInt(exitCode);
+        } catch (EOFException e) {
+            // closed without a request, e.g. by a server checking whether this one is still running
+        } catch (IOException e) {
+            // the client went away, nobody is left to report this to
+            e.printStackTrace();
+        }
+    }
+
+    /// Lets the server listening on `socket` compile a program, see [Main#run].
+    /// {@return the exit code of the compilation}
+    ///
+    /// @param err receives the diagnostics of the server
+    /// @throws java.net.SocketException if no server is listening on `socket`
+    static int request(Path socket, Path workingDirectory, String[] args, PrintStream err) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket));
+             DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+             DataInputStream in = new DataInputStream(Channels.newInputStream(channel))) {
+            out.writeUTF(workingDirectory.toString());
+            out.writeInt(args.length);
+            for (String arg : args) {
+                out.writeUTF(arg);
+            }
+            out.flush();
+            err.write(in.readNBytes(in.readInt()));
+            err.flush();
+            return in.readInt();
+        }
+    }
+}
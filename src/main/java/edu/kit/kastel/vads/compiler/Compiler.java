@@ -0,0 +1,98 @@
+package edu.kit.kastel.vads.compiler;
+
+import edu.kit.kastel.vads.compiler.backend.x86.Gcc;
+import edu.kit.kastel.vads.compiler.ir.optimize.OptimizationLevel;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.ParseException;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.semantic.SemanticException;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/// Compiles L1 files to executables. Errors are reported as [CompilationResult]s, nothing exits the JVM,
+/// so a single instance can compile any number of files, also concurrently.
+public final class Compiler {
+    private final OptimizationLevel level;
+    private final @Nullable String allocatorKind;
+    private final boolean collectPassStatistics;
+    private final boolean dumpGraphs;
+
+    /// @param allocatorKind `chordal`, `naive` or `null` for linear scan
+    /// @param collectPassStatistics whether to record [edu.kit.kastel.vads.compiler.ir.optimize.PassStatistics]
+    /// @param dumpGraphs whether to write the graphs into a `graphs` directory next to each executable
+    public Compiler(
+        OptimizationLevel level,
+        @Nullable String allocatorKind,
+        boolean collectPassStatistics,
+        boolean dumpGraphs
+    ) {
+        this.level = level;
+        this.allocatorKind = allocatorKind;
+        this.collectPassStatistics = collectPassStatistics;
+        this.dumpGraphs = dumpGraphs;
+    }
+
+    /// Compiles `input` into the executable `output`. The assembly is kept next to it, with a `.s` suffix.
+    /// The output of the assembler and linker is passed on to [System#err].
+    public CompilationResult compile(Path input, Path output) {
+        return compile(input, output, System.err);
+    }
+
+    /// Like [#compile(Path, Path)], but passes the output of the assembler and linker on to `diagnostics`.
+    public CompilationResult compile(Path input, Path output, OutputStream diagnostics) {
+        try {
+            @Nullable Path graphDirectory = null;
+            if (this.dumpGraphs) {
+                // one directory per output, so files compiled next to each other don't overwrite each other's dumps
+                Path absoluteOutput = output.toAbsolutePath();
+                graphDirectory = absoluteOutput.resolveSibling("graphs")
+                    .resolve(absoluteOutput.getFileName().toString());
+                Files.createDirectories(graphDirectory);
+            }
+            CompilationPipeline pipeline = new CompilationPipeline(
+                this.level,
+                this.collectPassStatistics,
+                this.allocatorKind,
+                graphDirectory
+            );
+            Path assembly = output.resolveSibling(output.getFileName() + ".s");
+            writeAssembly(pipeline, input, assembly);
+            Gcc.assembleAndLink(assembly, output, diagnostics);
+            return new CompilationResult.Success(
+                pipeline.passStatistics(),
+                pipeline.allocationStatistics(),
+                pipeline.valueNumberingHits(),
+                pipeline.valueNumberingMisses()
+            );
+        } catch (ParseException e) {
+            return new CompilationResult.ParseError(e);
+        } catch (SemanticException e) {
+            return new CompilationResult.SemanticError(e);
+        } catch (IOException e) {
+            return new CompilationResult.Failure(e);
+        }
+    }
+
+    /// Functions are written as soon as they are compiled, so the assembly is written to a temporary file
+    /// first. It only replaces `assembly` once the whole program compiled, so errors leave no partial file.
+    private static void writeAssembly(CompilationPipeline pipeline, Path input, Path assembly) throws IOException {
+        Path directory = assembly.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, assembly.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary)) {
+                Lexer lexer = Lexer.forString(Files.readString(input));
+                pipeline.compile(new Parser(new TokenSource(lexer)), writer);
+            }
+            Files.move(temporary, assembly, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
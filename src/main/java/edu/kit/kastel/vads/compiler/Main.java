@@ -1,76 +1,165 @@
 package edu.kit.kastel.vads.compiler;
 
-import edu.kit.kastel.vads.compiler.backend.aasm.CodeGenerator;
-import edu.kit.kastel.vads.compiler.ir.IrGraph;
-import edu.kit.kastel.vads.compiler.ir.SsaTranslation;
-import edu.kit.kastel.vads.compiler.ir.optimize.LocalValueNumbering;
-import edu.kit.kastel.vads.compiler.ir.util.YCompPrinter;
-import edu.kit.kastel.vads.compiler.lexer.Lexer;
-import edu.kit.kastel.vads.compiler.parser.ParseException;
-import edu.kit.kastel.vads.compiler.parser.Parser;
-import edu.kit.kastel.vads.compiler.parser.TokenSource;
-import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
-import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
-import edu.kit.kastel.vads.compiler.semantic.SemanticAnalysis;
-import edu.kit.kastel.vads.compiler.semantic.SemanticException;
+import edu.kit.kastel.vads.compiler.ir.optimize.OptimizationLevel;
+import org.jspecify.annotations.Nullable;
+
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.PrintStream;
+import java.net.SocketException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Main {
     public static void main(String[] args) throws IOException {
-        if (args.length != 2) {
-            System.err.println("Invalid arguments: Expected one input file and one output file");
-            System.exit(3);
-        }
-        Path input = Path.of(args[0]);
-        Path output = Path.of(args[1]);
-        ProgramTree program = lexAndParse(input);
-        try {
-            new SemanticAnalysis(program).analyze();
-        } catch (SemanticException e) {
-            e.printStackTrace();
-            System.exit(7);
+        if (args.length == 2 && args[0].equals("--server")) {
+            try {
+                CompileServer.serve(Path.of(args[1]));
+            } catch (FileAlreadyExistsException e) {
+                System.err.println("Cannot start the server: " + e.getMessage());
+                System.exit(1);
+            }
             return;
         }
-        List<IrGraph> graphs = new ArrayList<>();
-        for (FunctionTree function : program.topLevelTrees()) {
-            SsaTranslation translation = new SsaTranslation(function, new LocalValueNumbering());
-            graphs.add(translation.translate());
+        Path workingDirectory = Path.of("").toAbsolutePath();
+        if (args.length >= 1 && args[0].equals("--batch")) {
+            System.exit(batch(workingDirectory, Arrays.copyOfRange(args, 1, args.length), System.out, System.err));
+        }
+        if (args.length >= 2 && args[0].equals("--client")) {
+            String[] compilerArgs = Arrays.copyOfRange(args, 2, args.length);
+            int exitCode;
+            try {
+                exitCode = CompileServer.request(Path.of(args[1]), workingDirectory, compilerArgs, System.err);
+            } catch (SocketException | NoSuchFileException e) {
+                // no server running, compile in this process instead
+                exitCode = run(workingDirectory, compilerArgs, System.err);
+            }
+            System.exit(exitCode);
+        }
+        System.exit(run(workingDirectory, args, System.err));
+    }
+
+    /// {@return the exit code of compiling the program described by `args`}
+    /// Parse errors result in `42`, semantic errors in `7` and invalid arguments in `3`.
+    ///
+    /// @param workingDirectory the directory relative paths in `args` are resolved against
+    /// @param err receives all diagnostics
+    static int run(Path workingDirectory, String[] args, PrintStream err) {
+        List<String> files = new ArrayList<>();
+        @Nullable Compiler compiler = compiler(args, files, err);
+        if (compiler == null) {
+            return 3;
+        }
+        if (files.size() != 2) {
+            err.println("Invalid arguments: Expected one input file and one output file");
+            return 3;
+        }
+        CompilationResult result = compiler.compile(
+            workingDirectory.resolve(files.get(0)),
+            workingDirectory.resolve(files.get(1)),
+            err
+        );
+        switch (result) {
+            case CompilationResult.Success success -> {
+                success.passStatistics().forEach(err::println);
+                if (option("GVN_STATISTICS", "gvnStatistics") != null) {
+                    err.println(
+                        "gvn: " + success.valueNumberingHits() + " hits, "
+                            + success.valueNumberingMisses() + " misses"
+                    );
+                }
+                if (option("REGALLOC_STATISTICS", "regallocStatistics") != null) {
+                    success.allocationStatistics().forEach(err::println);
+                }
+            }
+            case CompilationResult.ParseError(var e) -> e.printStackTrace(err);
+            case CompilationResult.SemanticError(var e) -> e.printStackTrace(err);
+            case CompilationResult.Failure(var e) -> e.printStackTrace(err);
         }
+        return result.exitCode();
+    }
 
-        if ("vcg".equals(System.getenv("DUMP_GRAPHS")) || "vcg".equals(System.getProperty("dumpGraphs"))) {
-            Path tmp = output.toAbsolutePath().resolveSibling("graphs");
-            Files.createDirectory(tmp);
-            for (IrGraph graph : graphs) {
-                dumpGraph(graph, tmp, "before-codegen");
+    /// Compiles many files in parallel and prints one line per file to `out`, in input order.
+    /// Each line starts with the exit code a separate run would have had for this file. The output of
+    /// the assembler and linker for a file is printed to `err` under its name, right before its line.
+    ///
+    /// `args` contains the optimization level and either a directory or a manifest. All `.l1` files
+    /// of a directory are compiled into executables next to them, without the extension. Each line of a manifest
+    /// names an input file, optionally followed by the executable, relative to the manifest.
+    /// {@return `0` if all files were processed, regardless of their results, `3` for invalid arguments}
+    static int batch(Path workingDirectory, String[] args, PrintStream out, PrintStream err) throws IOException {
+        List<String> paths = new ArrayList<>();
+        @Nullable Compiler compiler = compiler(args, paths, err);
+        if (compiler == null) {
+            return 3;
+        }
+        if (paths.size() != 1) {
+            err.println("Invalid arguments: Expected one directory or manifest");
+            return 3;
+        }
+        List<BatchJob> jobs = BatchJob.read(workingDirectory.resolve(paths.getFirst()));
+        List<Future<BatchJob.Report>> reports = new ArrayList<>(jobs.size());
+        int unsuccessful = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())) {
+            for (BatchJob job : jobs) {
+                reports.add(executor.submit(() -> job.compile(compiler)));
+            }
+            for (int i = 0; i < jobs.size(); i++) {
+                BatchJob.Report report = BatchJob.await(reports.get(i));
+                CompilationResult result = report.result();
+                if (result.exitCode() != 0) {
+                    unsuccessful++;
+                }
+                if (!report.diagnostics().isEmpty()) {
+                    err.print(jobs.get(i).input() + ":\n" + report.diagnostics());
+                }
+                out.println(result.exitCode() + " " + jobs.get(i).input() + ": " + BatchJob.describe(result));
             }
         }
+        err.println("compiled " + jobs.size() + " files, " + unsuccessful + " did not succeed");
+        return 0;
+    }
 
-        // TODO: generate assembly and invoke gcc instead of generating abstract assembly
-        String s = new CodeGenerator().generateCode(graphs);
-        Files.writeString(output, s);
+    /// Creates a compiler for the optimization level in `args`, all other arguments are added to `positional`.
+    /// {@return the compiler, or `null` if the arguments are invalid}
+    private static @Nullable Compiler compiler(String[] args, List<String> positional, PrintStream err) {
+        OptimizationLevel level = OptimizationLevel.O2;
+        for (String arg : args) {
+            if (arg.startsWith("-O")) {
+                @Nullable OptimizationLevel requested = optimizationLevel(arg);
+                if (requested == null) {
+                    err.println("Invalid arguments: Unknown optimization level " + arg);
+                    return null;
+                }
+                level = requested;
+            } else {
+                positional.add(arg);
+            }
+        }
+        return new Compiler(
+            level,
+            option("REGALLOC", "regalloc"),
+            option("PASS_STATISTICS", "passStatistics") != null,
+            "vcg".equals(option("DUMP_GRAPHS", "dumpGraphs"))
+        );
     }
 
-    private static ProgramTree lexAndParse(Path input) throws IOException {
+    private static @Nullable OptimizationLevel optimizationLevel(String flag) {
         try {
-            Lexer lexer = Lexer.forString(Files.readString(input));
-            TokenSource tokenSource = new TokenSource(lexer);
-            Parser parser = new Parser(tokenSource);
-            return parser.parseProgram();
-        } catch (ParseException e) {
-            e.printStackTrace();
-            System.exit(42);
-            throw new AssertionError("unreachable");
+            return OptimizationLevel.valueOf(flag.substring(1));
+        } catch (IllegalArgumentException e) {
+            return null;
         }
     }
 
-    private static void dumpGraph(IrGraph graph, Path path, String key) throws IOException {
-        Files.writeString(
-            path.resolve(graph.name() + "-" + key + ".vcg"),
-            YCompPrinter.print(graph)
-        );
+    private static @Nullable String option(String environmentVariable, String systemProperty) {
+        String value = System.getenv(environmentVariable);
+        return value != null ? value : System.getProperty(systemProperty);
     }
 }
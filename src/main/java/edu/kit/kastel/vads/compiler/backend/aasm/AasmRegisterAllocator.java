@@ -4,40 +4,34 @@ import edu.kit.kastel.vads.compiler.backend.regalloc.Register;
 import edu.kit.kastel.vads.compiler.backend.regalloc.RegisterAllocator;
 import edu.kit.kastel.vads.compiler.ir.IrGraph;
 import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.DivModNode;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
 import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
 import edu.kit.kastel.vads.compiler.ir.node.ReturnNode;
 import edu.kit.kastel.vads.compiler.ir.node.StartNode;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import edu.kit.kastel.vads.compiler.ir.util.NodeMap;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
 
 public class AasmRegisterAllocator implements RegisterAllocator {
     private int id;
-    private final Map<Node, Register> registers = new HashMap<>();
 
     @Override
-    public Map<Node, Register> allocateRegisters(IrGraph graph) {
-        Set<Node> visited = new HashSet<>();
-        visited.add(graph.endBlock());
-        scan(graph.endBlock(), visited);
-        return Map.copyOf(this.registers);
-    }
-
-    private void scan(Node node, Set<Node> visited) {
-        for (Node predecessor : node.predecessors()) {
-            if (visited.add(predecessor)) {
-                scan(predecessor, visited);
+    public NodeMap<Register> allocateRegisters(IrGraph graph) {
+        NodeMap<Register> registers = new NodeMap<>(graph);
+        for (Node node : GraphTraversal.postOrder(graph)) {
+            if (needsRegister(node)) {
+                registers.put(node, new VirtualRegister(this.id++));
             }
         }
-        if (needsRegister(node)) {
-            this.registers.put(node, new VirtualRegister(this.id++));
-        }
+        return registers;
     }
 
     private static boolean needsRegister(Node node) {
-        return !(node instanceof ProjNode || node instanceof StartNode || node instanceof Block || node instanceof ReturnNode);
+        if (node instanceof ProjNode proj) {
+            return proj.projectionInfo() instanceof ProjNode.DivModProjectionInfo;
+        }
+        return !(node instanceof StartNode || node instanceof Block || node instanceof ReturnNode
+            || node instanceof DivModNode);
     }
 }
@@ -6,20 +6,24 @@ import edu.kit.kastel.vads.compiler.ir.node.AddNode;
 import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
 import edu.kit.kastel.vads.compiler.ir.node.Block;
 import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivModNode;
 import edu.kit.kastel.vads.compiler.ir.node.DivNode;
 import edu.kit.kastel.vads.compiler.ir.node.ModNode;
 import edu.kit.kastel.vads.compiler.ir.node.MulNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulhNode;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
 import edu.kit.kastel.vads.compiler.ir.node.Phi;
 import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
 import edu.kit.kastel.vads.compiler.ir.node.ReturnNode;
+import edu.kit.kastel.vads.compiler.ir.node.ShlNode;
+import edu.kit.kastel.vads.compiler.ir.node.ShrNode;
+import edu.kit.kastel.vads.compiler.ir.node.ShrsNode;
 import edu.kit.kastel.vads.compiler.ir.node.StartNode;
 import edu.kit.kastel.vads.compiler.ir.node.SubNode;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import edu.kit.kastel.vads.compiler.ir.util.NodeMap;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 import static edu.kit.kastel.vads.compiler.ir.util.NodeSupport.predecessorSkipProj;
 
@@ -29,7 +33,7 @@ public class CodeGenerator {
         StringBuilder builder = new StringBuilder();
         for (IrGraph graph : program) {
             AasmRegisterAllocator allocator = new AasmRegisterAllocator();
-            Map<Node, Register> registers = allocator.allocateRegisters(graph);
+            NodeMap<Register> registers = allocator.allocateRegisters(graph);
             builder.append("function ")
                 .append(graph.name())
                 .append(" {\n");
@@ -39,24 +43,28 @@ public class CodeGenerator {
         return builder.toString();
     }
 
-    private void generateForGraph(IrGraph graph, StringBuilder builder, Map<Node, Register> registers) {
-        Set<Node> visited = new HashSet<>();
-        scan(graph.endBlock(), visited, builder, registers);
-    }
-
-    private void scan(Node node, Set<Node> visited, StringBuilder builder, Map<Node, Register> registers) {
-        for (Node predecessor : node.predecessors()) {
-            if (visited.add(predecessor)) {
-                scan(predecessor, visited, builder, registers);
-            }
+    private void generateForGraph(IrGraph graph, StringBuilder builder, NodeMap<Register> registers) {
+        for (Node node : GraphTraversal.postOrder(graph)) {
+            generateForNode(node, builder, registers);
         }
+    }
 
+    private void generateForNode(Node node, StringBuilder builder, NodeMap<Register> registers) {
         switch (node) {
             case AddNode add -> binary(builder, registers, add, "add");
             case SubNode sub -> binary(builder, registers, sub, "sub");
             case MulNode mul -> binary(builder, registers, mul, "mul");
             case DivNode div -> binary(builder, registers, div, "div");
             case ModNode mod -> binary(builder, registers, mod, "mod");
+            case DivModNode divMod -> {
+                // one line per used projection, each with its own line break
+                divMod(builder, registers, divMod);
+                return;
+            }
+            case MulhNode mulh -> binary(builder, registers, mulh, "mulh");
+            case ShlNode shl -> binary(builder, registers, shl, "shl");
+            case ShrNode shr -> binary(builder, registers, shr, "shr");
+            case ShrsNode shrs -> binary(builder, registers, shrs, "shrs");
             case ReturnNode r -> builder.repeat(" ", 2).append("ret ")
                 .append(registers.get(predecessorSkipProj(r, ReturnNode.RESULT)));
             case ConstIntNode c -> builder.repeat(" ", 2)
@@ -72,9 +80,25 @@ public class CodeGenerator {
         builder.append("\n");
     }
 
+    private static void divMod(StringBuilder builder, NodeMap<Register> registers, DivModNode node) {
+        for (int i = 0; i < node.useCount(); i++) {
+            if (node.user(i) instanceof ProjNode proj && registers.get(proj) != null) {
+                String opcode = proj.projectionInfo() == ProjNode.DivModProjectionInfo.QUOTIENT ? "div" : "mod";
+                builder.repeat(" ", 2).append(registers.get(proj))
+                    .append(" = ")
+                    .append(opcode)
+                    .append(" ")
+                    .append(registers.get(predecessorSkipProj(node, BinaryOperationNode.LEFT)))
+                    .append(" ")
+                    .append(registers.get(predecessorSkipProj(node, BinaryOperationNode.RIGHT)))
+                    .append("\n");
+            }
+        }
+    }
+
     private static void binary(
         StringBuilder builder,
-        Map<Node, Register> registers,
+        NodeMap<Register> registers,
         BinaryOperationNode node,
         String opcode
     ) {
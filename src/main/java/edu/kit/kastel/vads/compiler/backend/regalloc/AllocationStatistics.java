@@ -0,0 +1,37 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import edu.kit.kastel.vads.compiler.ir.util.NodeMap;
+
+/// Describes the quality of the allocation of a single function.
+///
+/// @param function the name of the allocated graph
+/// @param values the number of values that got a location
+/// @param registers the number of distinct registers in use
+/// @param spills the number of values that were put into a spill slot
+/// @param moves the number of phi operands that don't share the location of their phi,
+///              each of them requires a copy
+public record AllocationStatistics(String function, int values, int registers, int spills, int moves) {
+
+    static int countPhiMoves(NodeMap<Register> locations) {
+        int[] moves = {0};
+        locations.forEach((node, phiLocation) -> {
+            if (!(node instanceof Phi phi)) {
+                return;
+            }
+            for (int i = 0; i < phi.predecessorCount(); i++) {
+                Register location = locations.get(phi.predecessor(i));
+                if (location != null && !location.equals(phiLocation)) {
+                    moves[0]++;
+                }
+            }
+        });
+        return moves[0];
+    }
+
+    @Override
+    public String toString() {
+        return this.function + ": " + this.values + " values, " + this.registers + " registers, "
+            + this.spills + " spills, " + this.moves + " moves";
+    }
+}
@@ -0,0 +1,166 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import edu.kit.kastel.vads.compiler.ir.util.NodeMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/// Register allocation by coloring the interference graph, following
+/// `Register Allocation for Programs in SSA-Form` by Hack.
+///
+/// The interference graph of a strict SSA program is chordal. Visiting the values in the order of their
+/// definition is the reverse of a perfect elimination order, so assigning each value the lowest color
+/// not used by its already colored neighbours needs exactly as many colors as values are live at once.
+/// Spilling therefore happens before coloring: wherever more values are live than there are registers,
+/// the value whose interval ends last is moved to memory. The remaining values are colored with registers,
+/// the spilled values are colored separately with spill slots.
+///
+/// Phis and their operands are colored with a bias towards each other. Whenever the bias succeeds,
+/// the copy that phi lowering would need for that operand disappears.
+public class ChordalRegisterAllocator implements RegisterAllocator {
+    private final List<? extends Register> registers;
+    private final IntFunction<? extends Register> spillSlots;
+    private final Predicate<Node> needsRegister;
+    private final List<AllocationStatistics> statistics = new ArrayList<>();
+
+    /// @param registers the registers to hand out, earlier registers are preferred
+    /// @param spillSlots creates the spill slot with the given index
+    /// @param needsRegister whether a node produces a value that must be kept somewhere
+    public ChordalRegisterAllocator(
+        List<? extends Register> registers,
+        IntFunction<? extends Register> spillSlots,
+        Predicate<Node> needsRegister
+    ) {
+        this.registers = List.copyOf(registers);
+        this.spillSlots = spillSlots;
+        this.needsRegister = needsRegister;
+    }
+
+    @Override
+    public NodeMap<Register> allocateRegisters(IrGraph graph) {
+        LiveIntervals intervals = LiveIntervals.compute(graph, this.needsRegister);
+        InterferenceGraph interference = InterferenceGraph.build(intervals);
+        int[][] affinities = affinities(graph, intervals);
+
+        BitSet spilled = spill(intervals);
+
+        int[] colors = new int[intervals.size()];
+        Arrays.fill(colors, -1);
+        BitSet used = new BitSet();
+        for (int node = 0; node < colors.length; node++) {
+            used.clear();
+            // registers and spill slots are colored independently
+            for (int neighbour : interference.neighbours(node)) {
+                if (colors[neighbour] >= 0 && spilled.get(neighbour) == spilled.get(node)) {
+                    used.set(colors[neighbour]);
+                }
+            }
+            colors[node] = spilled.get(node)
+                ? used.nextClearBit(0)
+                : chooseColor(node, colors, spilled, used, affinities[node], interference);
+        }
+
+        NodeMap<Register> result = new NodeMap<>(graph);
+        BitSet usedRegisters = new BitSet();
+        for (LiveIntervals.Interval interval : intervals.intervals()) {
+            int color = colors[interval.index()];
+            if (spilled.get(interval.index())) {
+                result.put(interval.node(), this.spillSlots.apply(color));
+            } else {
+                result.put(interval.node(), this.registers.get(color));
+                usedRegisters.set(color);
+            }
+        }
+        this.statistics.add(new AllocationStatistics(
+            graph.name(),
+            intervals.size(),
+            usedRegisters.cardinality(),
+            spilled.cardinality(),
+            AllocationStatistics.countPhiMoves(result)
+        ));
+        return result;
+    }
+
+    @Override
+    public List<AllocationStatistics> statistics() {
+        return List.copyOf(this.statistics);
+    }
+
+    /// Reduces the number of values live at once to the number of registers.
+    /// {@return the indices of the spilled intervals}
+    private BitSet spill(LiveIntervals intervals) {
+        BitSet spilled = new BitSet();
+        TreeSet<LiveIntervals.Interval> live = new TreeSet<>(
+            Comparator.comparingInt(LiveIntervals.Interval::end)
+                .thenComparingInt(LiveIntervals.Interval::start)
+                .thenComparingInt(LiveIntervals.Interval::index) // projections of the same node share their start
+        );
+        for (LiveIntervals.Interval current : intervals.intervals()) {
+            while (!live.isEmpty() && live.first().end() <= current.start()) {
+                live.pollFirst();
+            }
+            live.add(current);
+            if (live.size() > this.registers.size()) {
+                spilled.set(live.pollLast().index());
+            }
+        }
+        return spilled;
+    }
+
+    private int chooseColor(
+        int node,
+        int[] colors,
+        BitSet spilled,
+        BitSet used,
+        int[] affinities,
+        InterferenceGraph interference
+    ) {
+        for (int partner : affinities) {
+            int color = colors[partner];
+            if (color >= 0 && !spilled.get(partner) && !used.get(color) && !interference.interferes(node, partner)) {
+                return color;
+            }
+        }
+        int color = used.nextClearBit(0);
+        assert color < this.registers.size() : "spilling left too many values live";
+        return color;
+    }
+
+    /// Each phi is related to each of its operands and vice versa.
+    private static int[][] affinities(IrGraph graph, LiveIntervals intervals) {
+        NodeMap<LiveIntervals.Interval> byNode = new NodeMap<>(graph);
+        for (LiveIntervals.Interval interval : intervals.intervals()) {
+            byNode.put(interval.node(), interval);
+        }
+        List<List<Integer>> related = new ArrayList<>();
+        for (int i = 0; i < intervals.size(); i++) {
+            related.add(new ArrayList<>());
+        }
+        for (LiveIntervals.Interval interval : intervals.intervals()) {
+            if (!(interval.node() instanceof Phi phi)) {
+                continue;
+            }
+            for (int i = 0; i < phi.predecessorCount(); i++) {
+                LiveIntervals.Interval operandInterval = byNode.get(phi.predecessor(i));
+                if (operandInterval != null) {
+                    related.get(interval.index()).add(operandInterval.index());
+                    related.get(operandInterval.index()).add(interval.index());
+                }
+            }
+        }
+        int[][] affinities = new int[intervals.size()][];
+        for (int i = 0; i < affinities.length; i++) {
+            affinities[i] = related.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return affinities;
+    }
+}
@@ -0,0 +1,11 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+/// A single step of a sequentialized parallel copy, see [PhiLowering].
+public sealed interface Copy {
+    record Move(Register source, Register target) implements Copy {}
+
+    /// Exchanges the contents of both locations, used to break cycles.
+    record Swap(Register first, Register second) implements Copy {}
+
+    record LoadConstant(int value, Register target) implements Copy {}
+}
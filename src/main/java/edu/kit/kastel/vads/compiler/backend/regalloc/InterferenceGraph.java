@@ -0,0 +1,96 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+import java.util.Arrays;
+
+/// The interference graph of a set of [LiveIntervals].
+///
+/// Nodes are the indices of the intervals. Edges are stored twice: as adjacency lists to iterate
+/// the neighbours of a node and as a triangular bit matrix for constant time membership tests.
+/// As the bit matrix grows quadratically, it is only built for graphs up to [#MAX_MATRIX_NODES] nodes.
+/// Larger graphs answer membership tests by binary search in the sorted adjacency lists.
+final class InterferenceGraph {
+    static final int MAX_MATRIX_NODES = 1 << 14;
+
+    private final int[][] neighbours;
+    private final int[] degrees;
+    private final long[] matrix;
+
+    private InterferenceGraph(int size) {
+        this.neighbours = new int[size][];
+        this.degrees = new int[size];
+        this.matrix = size <= MAX_MATRIX_NODES ? new long[(bitIndex(size, 0) + 63) / 64] : null;
+        Arrays.fill(this.neighbours, new int[0]);
+    }
+
+    /// Sweeps over the intervals in the order of their definition.
+    /// Every interval interferes with the intervals that are still live at its definition.
+    static InterferenceGraph build(LiveIntervals intervals) {
+        InterferenceGraph graph = new InterferenceGraph(intervals.size());
+        int[] active = new int[16];
+        int activeCount = 0;
+        for (LiveIntervals.Interval current : intervals.intervals()) {
+            int kept = 0;
+            for (int i = 0; i < activeCount; i++) {
+                LiveIntervals.Interval other = intervals.get(active[i]);
+                if (other.end() > current.start()) {
+                    active[kept++] = active[i];
+                    graph.addEdge(other.index(), current.index());
+                }
+            }
+            activeCount = kept;
+            if (activeCount == active.length) {
+                active = Arrays.copyOf(active, activeCount * 2);
+            }
+            active[activeCount++] = current.index();
+        }
+        for (int node = 0; node < graph.neighbours.length; node++) {
+            graph.neighbours[node] = Arrays.copyOf(graph.neighbours[node], graph.degrees[node]);
+            Arrays.sort(graph.neighbours[node]);
+        }
+        return graph;
+    }
+
+    int size() {
+        return this.neighbours.length;
+    }
+
+    /// {@return the sorted neighbours of the given node, must not be modified}
+    int[] neighbours(int node) {
+        return this.neighbours[node];
+    }
+
+    boolean interferes(int a, int b) {
+        if (a == b) {
+            return false;
+        }
+        if (this.matrix != null) {
+            int bit = bitIndex(Math.max(a, b), Math.min(a, b));
+            return (this.matrix[bit >>> 6] & (1L << bit)) != 0;
+        }
+        return Arrays.binarySearch(this.neighbours[a], b) >= 0;
+    }
+
+    private void addEdge(int a, int b) {
+        append(a, b);
+        append(b, a);
+        if (this.matrix != null) {
+            int bit = bitIndex(Math.max(a, b), Math.min(a, b));
+            this.matrix[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private void append(int node, int neighbour) {
+        int[] list = this.neighbours[node];
+        int degree = this.degrees[node];
+        if (degree == list.length) {
+            list = Arrays.copyOf(list, Math.max(4, degree * 2));
+            this.neighbours[node] = list;
+        }
+        list[degree] = neighbour;
+        this.degrees[node] = degree + 1;
+    }
+
+    private static int bitIndex(int larger, int smaller) {
+        return (int) ((long) larger * (larger - 1) / 2) + smaller;
+    }
+}
@@ -0,0 +1,181 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import edu.kit.kastel.vads.compiler.ir.util.NodeMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/// Linear scan register allocation as described in
+/// [`Linear Scan Register Allocation`](https://dl.acm.org/doi/10.1145/330249.330250) by Poletto and Sarkar.
+///
+/// Intervals are visited in the order of their definition, see [LiveIntervals].
+/// When all registers are taken, the interval ending last is moved to a spill slot.
+/// Phis prefer the register of one of their operands, which saves the copy for that operand.
+public class LinearScanRegisterAllocator implements RegisterAllocator {
+    private static final Comparator<Interval> BY_END = Comparator.<Interval>comparingInt(i -> i.end)
+        .thenComparingInt(i -> i.start)
+        .thenComparingInt(i -> i.index); // projections of the same node share their start
+
+    private final List<? extends Register> registers;
+    private final IntFunction<? extends Register> spillSlots;
+    private final Predicate<Node> needsRegister;
+    private final List<AllocationStatistics> statistics = new ArrayList<>();
+
+    /// @param registers the registers to hand out, earlier registers are preferred
+    /// @param spillSlots creates the spill slot with the given index
+    /// @param needsRegister whether a node produces a value that must be kept somewhere
+    public LinearScanRegisterAllocator(
+        List<? extends Register> registers,
+        IntFunction<? extends Register> spillSlots,
+        Predicate<Node> needsRegister
+    ) {
+        this.registers = List.copyOf(registers);
+        this.spillSlots = spillSlots;
+        this.needsRegister = needsRegister;
+    }
+
+    @Override
+    public NodeMap<Register> allocateRegisters(IrGraph graph) {
+        List<Interval> intervals = LiveIntervals.compute(graph, this.needsRegister).intervals().stream()
+            .map(Interval::new)
+            .toList();
+        NodeMap<Interval> byNode = new NodeMap<>(graph);
+        for (Interval interval : intervals) {
+            byNode.put(interval.node, interval);
+        }
+        NodeMap<Register> result = new NodeMap<>(graph);
+
+        BitSet freeRegisters = new BitSet();
+        freeRegisters.set(0, this.registers.size());
+        Slots slots = new Slots();
+        // both sorted by end, so expiring and finding the interval ending last is cheap
+        TreeSet<Interval> activeInRegister = new TreeSet<>(BY_END);
+        PriorityQueue<Interval> activeInSlot = new PriorityQueue<>(BY_END);
+
+        // intervals are created in schedule order and therefore sorted by start
+        for (Interval current : intervals) {
+            // a value that dies at the current instruction can share its location with the result
+            while (!activeInRegister.isEmpty() && activeInRegister.first().end <= current.start) {
+                freeRegisters.set(activeInRegister.pollFirst().location);
+            }
+            while (!activeInSlot.isEmpty() && activeInSlot.peek().end <= current.start) {
+                slots.free(activeInSlot.poll());
+            }
+
+            int register = freeRegister(current, byNode, freeRegisters);
+            if (register >= 0) {
+                freeRegisters.clear(register);
+                current.location = register;
+                activeInRegister.add(current);
+                continue;
+            }
+            Interval victim = activeInRegister.isEmpty() ? null : activeInRegister.last();
+            if (victim != null && victim.end > current.end) {
+                activeInRegister.remove(victim);
+                current.location = victim.location;
+                activeInRegister.add(current);
+                spill(victim, slots, activeInSlot);
+            } else {
+                spill(current, slots, activeInSlot);
+            }
+        }
+
+        BitSet usedRegisters = new BitSet();
+        int spills = 0;
+        for (Interval interval : intervals) {
+            Register register;
+            if (interval.spilled) {
+                register = this.spillSlots.apply(interval.location);
+                spills++;
+            } else {
+                register = this.registers.get(interval.location);
+                usedRegisters.set(interval.location);
+            }
+            result.put(interval.node, register);
+        }
+        this.statistics.add(new AllocationStatistics(
+            graph.name(),
+            intervals.size(),
+            usedRegisters.cardinality(),
+            spills,
+            AllocationStatistics.countPhiMoves(result)
+        ));
+        return result;
+    }
+
+    @Override
+    public List<AllocationStatistics> statistics() {
+        return List.copyOf(this.statistics);
+    }
+
+    private static int freeRegister(Interval current, NodeMap<Interval> byNode, BitSet freeRegisters) {
+        if (current.node instanceof Phi phi) {
+            for (int i = 0; i < phi.predecessorCount(); i++) {
+                Interval operand = byNode.get(phi.predecessor(i));
+                if (operand != null && !operand.spilled && operand.location >= 0
+                    && freeRegisters.get(operand.location)) {
+                    return operand.location;
+                }
+            }
+        }
+        return freeRegisters.nextSetBit(0);
+    }
+
+    private static void spill(Interval interval, Slots slots, PriorityQueue<Interval> activeInSlot) {
+        interval.spilled = true;
+        interval.location = slots.take(interval.start);
+        activeInSlot.add(interval);
+    }
+
+    /// Spill slots are reused, but a victim is spilled for its whole interval retroactively.
+    /// A slot may therefore only be taken if its previous occupant died before the interval started.
+    private static final class Slots {
+        private final BitSet free = new BitSet();
+        private int[] freeSince = new int[8];
+        private int count;
+
+        int take(int start) {
+            for (int slot = this.free.nextSetBit(0); slot >= 0; slot = this.free.nextSetBit(slot + 1)) {
+                if (this.freeSince[slot] <= start) {
+                    this.free.clear(slot);
+                    return slot;
+                }
+            }
+            if (this.count == this.freeSince.length) {
+                this.freeSince = Arrays.copyOf(this.freeSince, this.count * 2);
+            }
+            return this.count++;
+        }
+
+        void free(Interval interval) {
+            this.free.set(interval.location);
+            this.freeSince[interval.location] = interval.end;
+        }
+    }
+
+    private static final class Interval {
+        private final int index;
+        private final Node node;
+        private final int start;
+        private final int end;
+        private int location = -1;
+        private boolean spilled;
+
+        Interval(LiveIntervals.Interval interval) {
+            this.index = interval.index();
+            this.node = interval.node();
+            this.start = interval.start();
+            this.end = interval.end();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import edu.kit.kastel.vads.compiler.ir.util.NodeMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/// The live intervals of all values of a graph.
+///
+/// The schedule is the post-order of the graph starting at the end block, which is the same order
+/// the code generators emit instructions in. Each value lives from its definition to its last use.
+/// A value that dies at an instruction does not interfere with the value defined by that instruction.
+/// Phi operands are copied right before the control flow node entering the block of the phi,
+/// so they are also used there, see [PhiLowering].
+final class LiveIntervals {
+    private final List<Interval> intervals;
+
+    private LiveIntervals(List<Interval> intervals) {
+        this.intervals = intervals;
+    }
+
+    /// {@return the intervals of all nodes matching `needsRegister`, sorted by their start}
+    static LiveIntervals compute(IrGraph graph, Predicate<Node> needsRegister) {
+        List<Node> schedule = GraphTraversal.postOrder(graph);
+        NodeMap<Interval> byNode = new NodeMap<>(graph);
+        List<Interval> ordered = new ArrayList<>();
+        int[] positions = new int[graph.nodeCount()];
+        Arrays.fill(positions, -1);
+        for (int position = 0; position < schedule.size(); position++) {
+            Node node = schedule.get(position);
+            positions[node.id()] = position;
+            if (!(node instanceof ProjNode)) {
+                for (int i = 0; i < node.predecessorCount(); i++) {
+                    Interval interval = byNode.get(valueOf(node.predecessor(i)));
+                    if (interval != null) {
+                        interval.end = position;
+                    }
+                }
+            }
+            if (needsRegister.test(node) && byNode.get(node) == null) {
+                define(node, position, byNode, ordered);
+            }
+            // value projections are written by the node they project from, e.g. a DivModNode
+            for (int i = 0; i < node.useCount(); i++) {
+                Node user = node.user(i);
+                if (user instanceof ProjNode && needsRegister.test(user) && byNode.get(user) == null) {
+                    define(user, position, byNode, ordered);
+                }
+            }
+        }
+        for (Node node : schedule) {
+            if (node instanceof Phi phi) {
+                extendToControlFlow(phi, byNode, positions);
+            }
+        }
+        return new LiveIntervals(List.copyOf(ordered));
+    }
+
+    private static void define(Node node, int position, NodeMap<Interval> byNode, List<Interval> ordered) {
+        Interval interval = new Interval(ordered.size(), node, position);
+        byNode.put(node, interval);
+        ordered.add(interval);
+    }
+
+    private static void extendToControlFlow(Phi phi, NodeMap<Interval> byNode, int[] positions) {
+        Block block = phi.block();
+        for (int i = 0; i < phi.predecessorCount(); i++) {
+            Interval interval = byNode.get(valueOf(phi.predecessor(i)));
+            int use = positions[block.predecessor(i).id()];
+            if (interval != null && use > interval.end) {
+                interval.end = use;
+            }
+        }
+    }
+
+    List<Interval> intervals() {
+        return this.intervals;
+    }
+
+    int size() {
+        return this.intervals.size();
+    }
+
+    Interval get(int index) {
+        return this.intervals.get(index);
+    }
+
+    /// Result projections share the value of their input. Side effect projections don't carry values,
+    /// the projections of a DivModNode are values on their own.
+    private static Node valueOf(Node node) {
+        if (node instanceof ProjNode proj && proj.projectionInfo() == ProjNode.SimpleProjectionInfo.RESULT) {
+            return proj.predecessor(ProjNode.IN);
+        }
+        return node;
+    }
+
+    static final class Interval {
+        private final int index;
+        private final Node node;
+        private final int start;
+        private int end;
+
+        private Interval(int index, Node node, int start) {
+            this.index = index;
+            this.node = node;
+            this.start = start;
+            this.end = start;
+        }
+
+        /// {@return the position of this interval in [LiveIntervals#intervals()]}
+        int index() {
+            return this.index;
+        }
+
+        Node node() {
+            return this.node;
+        }
+
+        int start() {
+            return this.start;
+        }
+
+        int end() {
+            return this.end;
+        }
+    }
+}
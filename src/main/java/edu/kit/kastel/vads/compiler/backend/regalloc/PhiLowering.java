@@ -0,0 +1,167 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import edu.kit.kastel.vads.compiler.ir.util.NodeMap;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/// Destructs SSA form after register allocation.
+///
+/// All phis of a block read their operands at the same time, so entering the block through its `i`-th
+/// predecessor performs a parallel copy from the `i`-th operands into the locations of the phis.
+/// The copies take place right before the control flow node that is the `i`-th predecessor of the block.
+///
+/// A parallel copy is sequentialized by repeatedly emitting moves into locations no pending move reads.
+/// Once only cycles are left, one move of a cycle is replaced by a swap, which needs no temporary.
+/// Copies whose source and target share a location vanish, so allocators that assign phis and their
+/// operands the same location coalesce them.
+public final class PhiLowering {
+    private PhiLowering() {
+
+    }
+
+    /// {@return the copies to perform before each control flow node that enters a block with phis}
+    public static NodeMap<List<Copy>> lower(IrGraph graph, NodeMap<Register> locations) {
+        NodeMap<List<Phi>> phis = new NodeMap<>(graph);
+        NodeMap<Boolean> sideEffects = new NodeMap<>(graph);
+        for (Node node : GraphTraversal.postOrder(graph)) {
+            if (node instanceof Phi phi && !isSideEffect(phi, sideEffects)) {
+                phis.computeIfAbsent(phi.block(), _ -> new ArrayList<>()).add(phi);
+            }
+        }
+        NodeMap<List<Copy>> copies = new NodeMap<>(graph);
+        phis.forEach((node, blockPhis) -> {
+            Block block = (Block) node;
+            for (int i = 0; i < block.predecessorCount(); i++) {
+                List<Copy> sequence = sequentialize(parallelCopy(blockPhis, i, locations));
+                if (!sequence.isEmpty()) {
+                    copies.computeIfAbsent(block.predecessor(i), _ -> new ArrayList<>()).addAll(sequence);
+                }
+            }
+        });
+        return copies;
+    }
+
+    private static List<Copy> parallelCopy(List<Phi> phis, int predecessor, NodeMap<Register> locations) {
+        List<Copy> copies = new ArrayList<>();
+        for (Phi phi : phis) {
+            Register target = locations.get(phi);
+            if (target == null) {
+                throw new IllegalStateException("no location for " + phi);
+            }
+            Node operand = valueOf(phi.predecessor(predecessor));
+            Register source = locations.get(operand);
+            if (source != null) {
+                copies.add(new Copy.Move(source, target));
+            } else if (operand instanceof ConstIntNode constant) {
+                copies.add(new Copy.LoadConstant(constant.value(), target));
+            } else {
+                throw new IllegalStateException("no location for " + operand);
+            }
+        }
+        return copies;
+    }
+
+    /// The targets of a parallel copy are distinct, as all phis of a block are live at the same time.
+    static List<Copy> sequentialize(List<Copy> parallelCopy) {
+        List<Copy.Move> pending = new ArrayList<>();
+        List<Copy> constants = new ArrayList<>();
+        for (Copy copy : parallelCopy) {
+            switch (copy) {
+                case Copy.Move move when !move.source().equals(move.target()) -> pending.add(move);
+                case Copy.Move _ -> {
+                    // coalesced
+                }
+                case Copy.LoadConstant constant -> constants.add(constant);
+                case Copy.Swap _ -> throw new IllegalArgumentException("swaps are not part of a parallel copy");
+            }
+        }
+        List<Copy> sequence = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            boolean progress = false;
+            for (Iterator<Copy.Move> iterator = pending.iterator(); iterator.hasNext(); ) {
+                Copy.Move move = iterator.next();
+                if (!isRead(move.target(), pending)) {
+                    sequence.add(move);
+                    iterator.remove();
+                    progress = true;
+                }
+            }
+            if (progress) {
+                continue;
+            }
+            // every target is read by exactly one other move, the pending moves are disjoint cycles
+            Copy.Move move = pending.removeFirst();
+            sequence.add(new Copy.Swap(move.source(), move.target()));
+            // the old value of the target now lives in the source
+            for (int i = 0; i < pending.size(); i++) {
+                Copy.Move other = pending.get(i);
+                if (other.source().equals(move.target())) {
+                    pending.set(i, new Copy.Move(move.source(), other.target()));
+                }
+            }
+            pending.removeIf(other -> other.source().equals(other.target()));
+        }
+        // constants don't read any location, but their targets might be read by the moves above
+        sequence.addAll(constants);
+        return sequence;
+    }
+
+    private static boolean isRead(Register location, List<Copy.Move> pending) {
+        for (Copy.Move move : pending) {
+            if (move.source().equals(location)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Node valueOf(Node node) {
+        if (node instanceof ProjNode proj && proj.projectionInfo() == ProjNode.SimpleProjectionInfo.RESULT) {
+            return proj.predecessor(ProjNode.IN);
+        }
+        return node;
+    }
+
+    /// Phis merging side effects don't carry a value and need no copies.
+    /// The answer is memoized for all phis connected to `phi`, so each phi is only visited once.
+    private static boolean isSideEffect(Phi phi, NodeMap<Boolean> sideEffects) {
+        Boolean known = sideEffects.get(phi);
+        if (known != null) {
+            return known;
+        }
+        List<Phi> connected = new ArrayList<>();
+        connected.add(phi);
+        // marks the phi as visited, the value is replaced below
+        sideEffects.put(phi, false);
+        // all phis reading each other merge the same kind of thing, so the first other operand decides
+        @Nullable Node merged = null;
+        for (int next = 0; next < connected.size() && merged == null; next++) {
+            Phi current = connected.get(next);
+            for (int i = 0; i < current.predecessorCount() && merged == null; i++) {
+                Node operand = current.predecessor(i);
+                if (!(operand instanceof Phi other)) {
+                    merged = operand;
+                } else if (!sideEffects.containsKey(other)) {
+                    sideEffects.put(other, false);
+                    connected.add(other);
+                }
+            }
+        }
+        boolean sideEffect = merged instanceof ProjNode proj
+            && proj.projectionInfo() == ProjNode.SimpleProjectionInfo.SIDE_EFFECT;
+        for (Phi other : connected) {
+            sideEffects.put(other, sideEffect);
+        }
+        return sideEffect;
+    }
+}
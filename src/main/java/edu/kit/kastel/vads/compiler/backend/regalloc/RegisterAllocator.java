@@ -1,11 +1,16 @@
 package edu.kit.kastel.vads.compiler.backend.regalloc;
 
 import edu.kit.kastel.vads.compiler.ir.IrGraph;
-import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.util.NodeMap;
 
-import java.util.Map;
+import java.util.List;
 
 public interface RegisterAllocator {
 
-    Map<Node, Register> allocateRegisters(IrGraph graph);
+    NodeMap<Register> allocateRegisters(IrGraph graph);
+
+    /// {@return the statistics of all graphs allocated by this allocator so far}
+    default List<AllocationStatistics> statistics() {
+        return List.of();
+    }
 }
@@ -0,0 +1,107 @@
+package edu.kit.kastel.vads.compiler.backend.x86;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/// Decomposes multiplications by constants into cheaper instructions.
+///
+/// Each step works on an accumulator that starts as `x` and always holds `c * x` for some `c`.
+/// An iterative deepening search finds the shortest sequence of steps reaching the requested constant.
+/// The search is not cached here, [X86CodeGenerator] memoizes its results for the code it generates,
+/// so long-running compilers don't accumulate constants.
+/// All steps have a latency of one cycle, `imul` has a latency of three cycles, so only sequences
+/// of at most [#MAX_STEPS] steps are profitable. As `int` multiplication wraps around, the steps
+/// only need to be correct modulo `2^32`.
+final class ConstantMultiplication {
+    static final int MAX_STEPS = 2;
+    private static final int[] LEA_SCALES = {2, 4, 8};
+    private static final List<Step> STEPS = steps();
+
+    private ConstantMultiplication() {
+
+    }
+
+    /// @param kind the instruction
+    /// @param amount the shift amount or the scale of the index register, unused otherwise
+    record Step(Kind kind, int amount) {
+        int apply(int c) {
+            return switch (this.kind) {
+                case SHIFT -> c << this.amount;
+                case LEA_SELF -> c + c * this.amount;
+                case ADD_X -> c + 1;
+                case SUB_X -> c - 1;
+                case LEA_X_PLUS_SCALED -> 1 + c * this.amount;
+                case LEA_PLUS_SCALED_X -> c + this.amount;
+                case NEG -> -c;
+            };
+        }
+
+        /// Whether `x` must still be available when this step is executed.
+        boolean readsX() {
+            return switch (this.kind) {
+                case ADD_X, SUB_X, LEA_X_PLUS_SCALED, LEA_PLUS_SCALED_X -> true;
+                case SHIFT, LEA_SELF, NEG -> false;
+            };
+        }
+    }
+
+    enum Kind {
+        /// `acc << amount`
+        SHIFT,
+        /// `acc + acc * amount` using `lea`
+        LEA_SELF,
+        /// `acc + x`
+        ADD_X,
+        /// `acc - x`
+        SUB_X,
+        /// `x + acc * amount` using `lea`
+        LEA_X_PLUS_SCALED,
+        /// `acc + x * amount` using `lea`
+        LEA_PLUS_SCALED_X,
+        /// `-acc`
+        NEG
+    }
+
+    /// {@return the shortest sequence of steps computing `constant * x`, if it is cheaper than `imul`}
+    static Optional<List<Step>> decompose(int constant) {
+        Step[] path = new Step[MAX_STEPS];
+        for (int length = 0; length <= MAX_STEPS; length++) {
+            if (search(1, constant, path, 0, length)) {
+                return Optional.of(List.of(Arrays.copyOf(path, length)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /// Fills `path` from `depth` to `length` with steps leading from `value` to `constant`, if possible.
+    private static boolean search(int value, int constant, Step[] path, int depth, int length) {
+        if (depth == length) {
+            return value == constant;
+        }
+        for (Step step : STEPS) {
+            path[depth] = step;
+            if (search(step.apply(value), constant, path, depth + 1, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Step> steps() {
+        List<Step> steps = new ArrayList<>();
+        for (int amount = 1; amount < 32; amount++) {
+            steps.add(new Step(Kind.SHIFT, amount));
+        }
+        for (int scale : LEA_SCALES) {
+            steps.add(new Step(Kind.LEA_SELF, scale));
+            steps.add(new Step(Kind.LEA_X_PLUS_SCALED, scale));
+            steps.add(new Step(Kind.LEA_PLUS_SCALED_X, scale));
+        }
+        steps.add(new Step(Kind.ADD_X, 0));
+        steps.add(new Step(Kind.SUB_X, 0));
+        steps.add(new Step(Kind.NEG, 0));
+        return steps;
+    }
+}
@@ -0,0 +1,32 @@
+package edu.kit.kastel.vads.compiler.backend.x86;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/// Assembles and links the generated assembly using the gcc found on the `PATH`.
+public final class Gcc {
+    private Gcc() {
+
+    }
+
+    /// @param diagnostics receives everything the assembler and linker print
+    public static void assembleAndLink(Path assembly, Path executable, OutputStream diagnostics) throws IOException {
+        Process process = new ProcessBuilder("gcc", assembly.toString(), "-o", executable.toString())
+            .redirectErrorStream(true)
+            .start();
+        // read until gcc exits, so it never blocks on a full pipe
+        process.getInputStream().transferTo(diagnostics);
+        diagnostics.flush();
+        int exitCode;
+        try {
+            exitCode = process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for gcc", e);
+        }
+        if (exitCode != 0) {
+            throw new IOException("gcc failed with exit code " + exitCode);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package edu.kit.kastel.vads.compiler.backend.x86;
+
+import edu.kit.kastel.vads.compiler.backend.regalloc.Register;
+
+/// A 4-byte spill slot in the stack frame of a function, addressed relative to `rsp`.
+public record StackSlot(int index) implements Register {
+    public static final int SIZE = 4;
+
+    @Override
+    public String toString() {
+        return (this.index * SIZE) + "(%rsp)";
+    }
+}
@@ -0,0 +1,375 @@
+package edu.kit.kastel.vads.compiler.backend.x86;
+
+import edu.kit.kastel.vads.compiler.backend.regalloc.Copy;
+import edu.kit.kastel.vads.compiler.backend.regalloc.PhiLowering;
+import edu.kit.kastel.vads.compiler.backend.regalloc.Register;
+import edu.kit.kastel.vads.compiler.backend.regalloc.RegisterAllocator;
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.AddNode;
+import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivModNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivNode;
+import edu.kit.kastel.vads.compiler.ir.node.ModNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulhNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
+import edu.kit.kastel.vads.compiler.ir.node.ReturnNode;
+import edu.kit.kastel.vads.compiler.ir.node.ShlNode;
+import edu.kit.kastel.vads.compiler.ir.node.ShrNode;
+import edu.kit.kastel.vads.compiler.ir.node.ShrsNode;
+import edu.kit.kastel.vads.compiler.ir.node.StartNode;
+import edu.kit.kastel.vads.compiler.ir.node.SubNode;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import edu.kit.kastel.vads.compiler.ir.util.NodeMap;
+import org.jspecify.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static edu.kit.kastel.vads.compiler.ir.util.NodeSupport.predecessorSkipProj;
+
+/// Generates x86-64 assembly in AT&T syntax that can be assembled by gcc.
+///
+/// All values are 32-bit integers. `rax` and `rdx` are reserved for `idiv` and the return value,
+/// `r11` is used as scratch register whenever an instruction can't encode its operands directly.
+public class X86CodeGenerator {
+    // the empty GNU-stack section marks the stack as non-executable, before .text so functions stay in .text
+    private static final String PRELUDE = """
+        .section .note.GNU-stack,"",@progbits
+        .global main
+        .global _main
+        .text
+
+        main:
+        call _main
+        movq %rax, %rdi
+        movq $0x3C, %rax
+        syscall
+
+        """;
+
+    private final RegisterAllocator allocator;
+    // decompositions of the constants multiplied by so far, scoped to this generator so they don't accumulate
+    private final Map<Integer, Optional<List<ConstantMultiplication.Step>>> multiplications = new HashMap<>();
+
+    public X86CodeGenerator() {
+        this(X86RegisterAllocator.linearScan());
+    }
+
+    public X86CodeGenerator(RegisterAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    public String generateCode(List<IrGraph> program) {
+        StringBuilder builder = new StringBuilder(PRELUDE);
+        for (IrGraph graph : program) {
+            generate(graph, builder);
+        }
+        return builder.toString();
+    }
+
+    /// {@return the code of a single function, without the prelude of [#generateCode(List)]}
+    /// Functions can be generated concurrently as long as each thread uses its own generator and allocator.
+    public String generateFunction(IrGraph graph) {
+        StringBuilder builder = new StringBuilder();
+        generate(graph, builder);
+        return builder.toString();
+    }
+
+    /// {@return the code that calls `_main` and exits with its result, to be put before all functions}
+    public static String prelude() {
+        return PRELUDE;
+    }
+
+    private void generate(IrGraph graph, StringBuilder builder) {
+        NodeMap<Register> registers = this.allocator.allocateRegisters(graph);
+        NodeMap<List<Copy>> copies = PhiLowering.lower(graph, registers);
+        new GraphGenerator(builder, registers, copies, this.multiplications).generate(graph);
+    }
+
+    private static final class GraphGenerator {
+        private final StringBuilder builder;
+        private final NodeMap<Register> registers;
+        private final NodeMap<List<Copy>> copies;
+        private final Map<Integer, Optional<List<ConstantMultiplication.Step>>> multiplications;
+        private final List<X86Register> savedRegisters;
+        private final int frameSize;
+
+        GraphGenerator(
+            StringBuilder builder,
+            NodeMap<Register> registers,
+            NodeMap<List<Copy>> copies,
+            Map<Integer, Optional<List<ConstantMultiplication.Step>>> multiplications
+        ) {
+            this.builder = builder;
+            this.registers = registers;
+            this.copies = copies;
+            this.multiplications = multiplications;
+            Set<X86Register> saved = new TreeSet<>();
+            int[] slots = {0};
+            registers.forEach((_, register) -> {
+                switch (register) {
+                    case X86Register x86 when x86.isCalleeSaved() -> saved.add(x86);
+                    case StackSlot slot -> slots[0] = Math.max(slots[0], slot.index() + 1);
+                    default -> {
+                    }
+                }
+            });
+            this.savedRegisters = List.copyOf(saved);
+            // keep rsp 16-byte aligned, taking the return address and the pushed registers into account
+            int pushed = 8 + 8 * this.savedRegisters.size();
+            this.frameSize = align(slots[0] * StackSlot.SIZE + pushed, 16) - pushed;
+        }
+
+        void generate(IrGraph graph) {
+            this.builder.append("_").append(graph.name()).append(":\n");
+            for (X86Register register : this.savedRegisters) {
+                instruction("pushq", register.name64());
+            }
+            if (this.frameSize > 0) {
+                instruction("subq", "$" + this.frameSize, "%rsp");
+            }
+            for (Node node : GraphTraversal.postOrder(graph)) {
+                generate(node);
+            }
+            this.builder.append("\n");
+        }
+
+        private void generate(Node node) {
+            for (Copy copy : this.copies.getOrDefault(node, List.of())) {
+                copy(copy);
+            }
+            switch (node) {
+                case AddNode add -> binary(add, "addl", true);
+                case SubNode sub -> binary(sub, "subl", false);
+                case MulNode mul -> multiply(mul);
+                case DivNode div -> {
+                    division(div);
+                    move(X86Register.RAX.toString(), register(div).toString());
+                }
+                case ModNode mod -> {
+                    division(mod);
+                    move(X86Register.RDX.toString(), register(mod).toString());
+                }
+                case DivModNode divMod -> divisionWithRemainder(divMod);
+                case MulhNode mulh -> multiplyHigh(mulh);
+                case ShlNode shl -> shift(shl, "shll");
+                case ShrNode shr -> shift(shr, "shrl");
+                case ShrsNode shrs -> shift(shrs, "sarl");
+                case ReturnNode r -> ret(r);
+                case Block _, ConstIntNode _, Phi _, ProjNode _, StartNode _ -> {
+                    // constants are encoded as immediates, phis are written by the copies
+                    // of the predecessors, the others don't produce code
+                }
+            }
+        }
+
+        private void copy(Copy copy) {
+            switch (copy) {
+                case Copy.Move(Register source, Register target) -> move(source.toString(), target.toString());
+                case Copy.LoadConstant(int value, Register target) -> move("$" + value, target.toString());
+                case Copy.Swap(Register first, Register second) -> {
+                    String a = first.toString();
+                    String b = second.toString();
+                    if (isMemory(a) && isMemory(b)) {
+                        String scratch = X86Register.R11.toString();
+                        instruction("movl", a, scratch);
+                        instruction("xchgl", scratch, b);
+                        instruction("movl", scratch, a);
+                    } else {
+                        instruction("xchgl", a, b);
+                    }
+                }
+            }
+        }
+
+        private void binary(BinaryOperationNode node, String opcode, boolean commutative) {
+            String left = operand(predecessorSkipProj(node, BinaryOperationNode.LEFT));
+            String right = operand(predecessorSkipProj(node, BinaryOperationNode.RIGHT));
+            Register target = register(node);
+            String dst = target.toString();
+            if (target instanceof X86Register && !dst.equals(right)) {
+                move(left, dst);
+                instruction(opcode, right, dst);
+            } else if (target instanceof X86Register && commutative) {
+                instruction(opcode, left, dst);
+            } else {
+                // target is in memory or would be overwritten before it is read
+                String scratch = X86Register.RAX.toString();
+                move(left, scratch);
+                instruction(opcode, right, scratch);
+                move(scratch, dst);
+            }
+        }
+
+        /// Multiplications by constants are replaced by shifts, additions and `lea` when that is faster.
+        private void multiply(MulNode node) {
+            Node left = predecessorSkipProj(node, BinaryOperationNode.LEFT);
+            Node right = predecessorSkipProj(node, BinaryOperationNode.RIGHT);
+            if (left instanceof ConstIntNode && !(right instanceof ConstIntNode)) {
+                Node tmp = left;
+                left = right;
+                right = tmp;
+            }
+            Optional<List<ConstantMultiplication.Step>> steps =
+                right instanceof ConstIntNode c && !(left instanceof ConstIntNode)
+                    ? this.multiplications.computeIfAbsent(c.value(), ConstantMultiplication::decompose)
+                    : Optional.empty();
+            if (steps.isEmpty()) {
+                binary(node, "imull", true);
+                return;
+            }
+            Register target = register(node);
+            Register x = register(left);
+            boolean readsX = steps.get().stream().anyMatch(ConstantMultiplication.Step::readsX);
+            // lea needs x in a register, the accumulator must not overwrite x while it is still needed
+            X86Register xRegister = x instanceof X86Register register ? register : X86Register.R11;
+            X86Register accumulator = target instanceof X86Register register && !(readsX && register == x)
+                ? register
+                : X86Register.RAX;
+            if (readsX && xRegister == X86Register.R11) {
+                move(x.toString(), xRegister.toString());
+            }
+            move(x.toString(), accumulator.toString());
+            String acc = accumulator.toString();
+            String acc64 = accumulator.name64();
+            String x64 = xRegister.name64();
+            for (ConstantMultiplication.Step step : steps.get()) {
+                switch (step.kind()) {
+                    case SHIFT -> instruction("shll", "$" + step.amount(), acc);
+                    case LEA_SELF -> instruction("leal", address(acc64, acc64, step.amount()), acc);
+                    case ADD_X -> instruction("addl", xRegister.toString(), acc);
+                    case SUB_X -> instruction("subl", xRegister.toString(), acc);
+                    case LEA_X_PLUS_SCALED -> instruction("leal", address(x64, acc64, step.amount()), acc);
+                    case LEA_PLUS_SCALED_X -> instruction("leal", address(acc64, x64, step.amount()), acc);
+                    case NEG -> instruction("negl", acc);
+                }
+            }
+            move(acc, target.toString());
+        }
+
+        /// Leaves the quotient in `eax` and the remainder in `edx`.
+        private void division(BinaryOperationNode node) {
+            Node divisor = predecessorSkipProj(node, BinaryOperationNode.RIGHT);
+            move(operand(predecessorSkipProj(node, BinaryOperationNode.LEFT)), X86Register.RAX.toString());
+            instruction("cltd");
+            if (divisor instanceof ConstIntNode) {
+                // idiv has no immediate form
+                move(operand(divisor), X86Register.R11.toString());
+                instruction("idivl", X86Register.R11.toString());
+            } else {
+                instruction("idivl", operand(divisor));
+            }
+        }
+
+        /// Both projections are written here, as `eax` and `edx` don't survive until they are scheduled.
+        /// Unused projections are skipped, as they may share their register with the other projection.
+        private void divisionWithRemainder(DivModNode node) {
+            division(node);
+            @Nullable Register quotient = null;
+            @Nullable Register remainder = null;
+            for (int i = 0; i < node.useCount(); i++) {
+                if (node.user(i) instanceof ProjNode proj && proj.useCount() > 0
+                    && this.registers.get(proj) instanceof Register register) {
+                    if (proj.projectionInfo() == ProjNode.DivModProjectionInfo.QUOTIENT) {
+                        quotient = register;
+                    } else if (proj.projectionInfo() == ProjNode.DivModProjectionInfo.REMAINDER) {
+                        remainder = register;
+                    }
+                }
+            }
+            assert quotient == null || !quotient.equals(remainder) : "live quotient and remainder share " + quotient;
+            if (quotient != null) {
+                move(X86Register.RAX.toString(), quotient.toString());
+            }
+            if (remainder != null) {
+                move(X86Register.RDX.toString(), remainder.toString());
+            }
+        }
+
+        /// The one operand form of `imul` multiplies by `eax` and puts the upper half into `edx`.
+        private void multiplyHigh(MulhNode node) {
+            Node right = predecessorSkipProj(node, BinaryOperationNode.RIGHT);
+            move(operand(predecessorSkipProj(node, BinaryOperationNode.LEFT)), X86Register.RAX.toString());
+            if (right instanceof ConstIntNode) {
+                move(operand(right), X86Register.R11.toString());
+                instruction("imull", X86Register.R11.toString());
+            } else {
+                instruction("imull", operand(right));
+            }
+            move(X86Register.RDX.toString(), register(node).toString());
+        }
+
+        private void shift(BinaryOperationNode node, String opcode) {
+            // variable shift amounts would have to be in cl
+            assert predecessorSkipProj(node, BinaryOperationNode.RIGHT) instanceof ConstIntNode
+                : "only shifts by constants are supported";
+            binary(node, opcode, false);
+        }
+
+        private void ret(ReturnNode node) {
+            move(operand(predecessorSkipProj(node, ReturnNode.RESULT)), X86Register.RAX.toString());
+            if (this.frameSize > 0) {
+                instruction("addq", "$" + this.frameSize, "%rsp");
+            }
+            for (X86Register register : this.savedRegisters.reversed()) {
+                instruction("popq", register.name64());
+            }
+            instruction("ret");
+        }
+
+        private void move(String src, String dst) {
+            if (src.equals(dst)) {
+                return;
+            }
+            if (isMemory(src) && isMemory(dst)) {
+                String scratch = X86Register.R11.toString();
+                instruction("movl", src, scratch);
+                instruction("movl", scratch, dst);
+                return;
+            }
+            instruction("movl", src, dst);
+        }
+
+        private String operand(Node node) {
+            if (node instanceof ConstIntNode c) {
+                return "$" + c.value();
+            }
+            return register(node).toString();
+        }
+
+        private Register register(Node node) {
+            Register register = this.registers.get(node);
+            assert register != null : "no register for " + node;
+            return register;
+        }
+
+        private void instruction(String opcode, String... operands) {
+            this.builder.repeat(" ", 2).append(opcode);
+            if (operands.length > 0) {
+                this.builder.append(" ").append(String.join(", ", operands));
+            }
+            this.builder.append("\n");
+        }
+
+        private static String address(String base, String index, int scale) {
+            return "(" + base + "," + index + "," + scale + ")";
+        }
+
+        private static boolean isMemory(String operand) {
+            return operand.endsWith(")");
+        }
+
+        private static int align(int value, int alignment) {
+            return (value + alignment - 1) / alignment * alignment;
+        }
+    }
+}
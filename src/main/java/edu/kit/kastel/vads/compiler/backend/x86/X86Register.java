@@ -0,0 +1,56 @@
+package edu.kit.kastel.vads.compiler.backend.x86;
+
+import edu.kit.kastel.vads.compiler.backend.regalloc.Register;
+
+import java.util.List;
+
+/// The general purpose registers of x86-64.
+/// As L1 only knows 32-bit integers, [#toString()] returns the name of the lower 32 bits.
+public enum X86Register implements Register {
+    RAX("rax", "eax", false),
+    RBX("rbx", "ebx", true),
+    RCX("rcx", "ecx", false),
+    RDX("rdx", "edx", false),
+    RSI("rsi", "esi", false),
+    RDI("rdi", "edi", false),
+    R8("r8", "r8d", false),
+    R9("r9", "r9d", false),
+    R10("r10", "r10d", false),
+    R11("r11", "r11d", false),
+    R12("r12", "r12d", true),
+    R13("r13", "r13d", true),
+    R14("r14", "r14d", true),
+    R15("r15", "r15d", true);
+
+    /// The registers that can be handed out by a register allocator.
+    /// `rax` and `rdx` are needed by `idiv` and `r11` is kept free as scratch register,
+    /// `rsp` and `rbp` are never touched.
+    public static final List<X86Register> ALLOCATABLE = List.of(
+        RBX, RCX, RSI, RDI, R8, R9, R10, R12, R13, R14, R15
+    );
+
+    private final String name64;
+    private final String name32;
+    private final boolean calleeSaved;
+
+    X86Register(String name64, String name32, boolean calleeSaved) {
+        this.name64 = name64;
+        this.name32 = name32;
+        this.calleeSaved = calleeSaved;
+    }
+
+    /// {@return the AT&T name of the full 64-bit register}
+    public String name64() {
+        return "%" + this.name64;
+    }
+
+    /// {@return whether a function must restore this register before returning}
+    public boolean isCalleeSaved() {
+        return this.calleeSaved;
+    }
+
+    @Override
+    public String toString() {
+        return "%" + this.name32;
+    }
+}
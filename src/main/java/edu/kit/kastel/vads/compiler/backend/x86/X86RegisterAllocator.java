@@ -0,0 +1,62 @@
+package edu.kit.kastel.vads.compiler.backend.x86;
+
+import edu.kit.kastel.vads.compiler.backend.regalloc.ChordalRegisterAllocator;
+import edu.kit.kastel.vads.compiler.backend.regalloc.LinearScanRegisterAllocator;
+import edu.kit.kastel.vads.compiler.backend.regalloc.Register;
+import edu.kit.kastel.vads.compiler.backend.regalloc.RegisterAllocator;
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivModNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
+import edu.kit.kastel.vads.compiler.ir.node.ReturnNode;
+import edu.kit.kastel.vads.compiler.ir.node.StartNode;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import edu.kit.kastel.vads.compiler.ir.util.NodeMap;
+
+
+/// Hands out every physical register in [X86Register#ALLOCATABLE] once
+/// and puts all further values into their own [StackSlot].
+/// Registers are never reused, so this only produces good code for tiny functions.
+public class X86RegisterAllocator implements RegisterAllocator {
+    private int id;
+
+    /// {@return a [LinearScanRegisterAllocator] for the x86 registers}
+    public static RegisterAllocator linearScan() {
+        return new LinearScanRegisterAllocator(X86Register.ALLOCATABLE, StackSlot::new, X86RegisterAllocator::needsRegister);
+    }
+
+    /// {@return a [ChordalRegisterAllocator] for the x86 registers}
+    public static RegisterAllocator chordal() {
+        return new ChordalRegisterAllocator(X86Register.ALLOCATABLE, StackSlot::new, X86RegisterAllocator::needsRegister);
+    }
+
+    @Override
+    public NodeMap<Register> allocateRegisters(IrGraph graph) {
+        NodeMap<Register> registers = new NodeMap<>(graph);
+        for (Node node : GraphTraversal.postOrder(graph)) {
+            if (needsRegister(node)) {
+                registers.put(node, nextRegister());
+            }
+        }
+        return registers;
+    }
+
+    private Register nextRegister() {
+        int next = this.id++;
+        if (next < X86Register.ALLOCATABLE.size()) {
+            return X86Register.ALLOCATABLE.get(next);
+        }
+        return new StackSlot(next - X86Register.ALLOCATABLE.size());
+    }
+
+    public static boolean needsRegister(Node node) {
+        // constants are always encoded as immediates
+        if (node instanceof ProjNode proj) {
+            return proj.projectionInfo() instanceof ProjNode.DivModProjectionInfo;
+        }
+        return !(node instanceof StartNode || node instanceof Block || node instanceof ReturnNode
+            || node instanceof ConstIntNode || node instanceof DivModNode);
+    }
+}
@@ -1,39 +1,45 @@
 package edu.kit.kastel.vads.compiler.ir;
 
-import edu.kit.kastel.vads.compiler.ir.node.AddNode;
 import edu.kit.kastel.vads.compiler.ir.node.Block;
-import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
 import edu.kit.kastel.vads.compiler.ir.node.DivNode;
 import edu.kit.kastel.vads.compiler.ir.node.ModNode;
-import edu.kit.kastel.vads.compiler.ir.node.MulNode;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
 import edu.kit.kastel.vads.compiler.ir.node.Phi;
 import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
 import edu.kit.kastel.vads.compiler.ir.node.ReturnNode;
 import edu.kit.kastel.vads.compiler.ir.node.StartNode;
-import edu.kit.kastel.vads.compiler.ir.node.SubNode;
 import edu.kit.kastel.vads.compiler.ir.optimize.Optimizer;
+import edu.kit.kastel.vads.compiler.ir.optimize.PureBinaryOperation;
+import edu.kit.kastel.vads.compiler.ir.util.NodeMap;
+import edu.kit.kastel.vads.compiler.ir.util.NodeSet;
 import edu.kit.kastel.vads.compiler.parser.symbol.Name;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 class GraphConstructor {
 
     private final Optimizer optimizer;
     private final IrGraph graph;
-    private final Map<Name, Map<Block, Node>> currentDef = new HashMap<>();
-    private final Map<Block, Map<Name, Phi>> incompletePhis = new HashMap<>();
-    private final Map<Block, Node> currentSideEffect = new HashMap<>();
-    private final Map<Block, Phi> incompleteSideEffectPhis = new HashMap<>();
-    private final Set<Block> sealedBlocks = new HashSet<>();
+    private final Map<Name, NodeMap<Node>> currentDef = new HashMap<>();
+    private final NodeMap<Map<Name, Phi>> incompletePhis;
+    private final NodeMap<Node> currentSideEffect;
+    private final NodeMap<Phi> incompleteSideEffectPhis;
+    private final NodeSet sealedBlocks;
+    // removed trivial phis might still be recorded as current definition
+    private final NodeMap<Node> removedPhis;
     private Block currentBlock;
 
     public GraphConstructor(Optimizer optimizer, String name) {
         this.optimizer = optimizer;
         this.graph = new IrGraph(name);
+        this.incompletePhis = new NodeMap<>(this.graph);
+        this.currentSideEffect = new NodeMap<>(this.graph);
+        this.incompleteSideEffectPhis = new NodeMap<>(this.graph);
+        this.sealedBlocks = new NodeSet(this.graph);
+        this.removedPhis = new NodeMap<>(this.graph);
         this.currentBlock = this.graph.startBlock();
         // the start block never gets any more predecessors
         sealBlock(this.currentBlock);
@@ -45,14 +51,14 @@ class GraphConstructor {
     }
 
     public Node newAdd(Node left, Node right) {
-        return this.optimizer.transform(new AddNode(currentBlock(), left, right));
+        return this.optimizer.binary(PureBinaryOperation.ADD, currentBlock(), left, right);
     }
     public Node newSub(Node left, Node right) {
-        return this.optimizer.transform(new SubNode(currentBlock(), left, right));
+        return this.optimizer.binary(PureBinaryOperation.SUB, currentBlock(), left, right);
     }
 
     public Node newMul(Node left, Node right) {
-        return this.optimizer.transform(new MulNode(currentBlock(), left, right));
+        return this.optimizer.binary(PureBinaryOperation.MUL, currentBlock(), left, right);
     }
 
     public Node newDiv(Node left, Node right) {
@@ -70,7 +76,7 @@ class GraphConstructor {
     public Node newConstInt(int value) {
         // always move const into start block, this allows better deduplication
         // and resultingly in better value numbering
-        return this.optimizer.transform(new ConstIntNode(this.graph.startBlock(), value));
+        return this.optimizer.constInt(this.graph.startBlock(), value);
     }
 
     public Node newSideEffectProj(Node node) {
@@ -95,13 +101,14 @@ class GraphConstructor {
     }
 
     void writeVariable(Name variable, Block block, Node value) {
-        this.currentDef.computeIfAbsent(variable, _ -> new HashMap<>()).put(block, value);
+        this.currentDef.computeIfAbsent(variable, _ -> new NodeMap<>(this.graph)).put(block, value);
     }
 
     Node readVariable(Name variable, Block block) {
-        Node node = this.currentDef.getOrDefault(variable, Map.of()).get(block);
+        NodeMap<Node> definitions = this.currentDef.get(variable);
+        Node node = definitions == null ? null : definitions.get(block);
         if (node != null) {
-            return node;
+            return replacementOf(node);
         }
         return readVariableRecursive(variable, block);
     }
@@ -112,8 +119,8 @@ class GraphConstructor {
         if (!this.sealedBlocks.contains(block)) {
             val = newPhi();
             this.incompletePhis.computeIfAbsent(block, _ -> new HashMap<>()).put(variable, (Phi) val);
-        } else if (block.predecessors().size() == 1) {
-            val = readVariable(variable, block.predecessors().getFirst().block());
+        } else if (block.predecessorCount() == 1) {
+            val = readVariable(variable, block.predecessor(0).block());
         } else {
             val = newPhi();
             writeVariable(variable, block, val);
@@ -124,18 +131,53 @@ class GraphConstructor {
     }
 
     Node addPhiOperands(Name variable, Phi phi) {
-        for (Node pred : phi.block().predecessors()) {
-            phi.appendOperand(readVariable(variable, pred.block()));
+        Block block = phi.block();
+        for (int i = 0; i < block.predecessorCount(); i++) {
+            phi.appendOperand(readVariable(variable, block.predecessor(i).block()));
         }
         return tryRemoveTrivialPhi(phi);
     }
 
+    /// A phi is trivial if it only references itself and one other value.
+    /// It is then replaced by that value, which might make phis using it trivial as well.
     Node tryRemoveTrivialPhi(Phi phi) {
-        // TODO: the paper shows how to remove trivial phis.
-        // as this is not a problem in Lab 1 and it is just
-        // a simplification, we recommend to implement this
-        // part yourself.
-        return phi;
+        Node same = null;
+        for (int i = 0; i < phi.predecessorCount(); i++) {
+            Node operand = phi.predecessor(i);
+            if (operand == same || operand == phi) {
+                continue; // unique value or self-reference
+            }
+            if (same != null) {
+                return phi; // the phi merges at least two values: not trivial
+            }
+            same = operand;
+        }
+        if (same == null) {
+            // the phi is unreachable or in the start block, there is no undefined value to replace it with
+            return phi;
+        }
+        List<Phi> phiUsers = new ArrayList<>();
+        for (int use = 0; use < phi.useCount(); use++) {
+            if (phi.user(use) instanceof Phi user && user != phi) {
+                phiUsers.add(user);
+            }
+        }
+        phi.clearPredecessors();
+        phi.replaceAllUsesWith(same);
+        this.removedPhis.put(phi, same);
+        for (Phi user : phiUsers) {
+            tryRemoveTrivialPhi(user);
+        }
+        return replacementOf(same);
+    }
+
+    private Node replacementOf(Node node) {
+        Node replacement = this.removedPhis.get(node);
+        while (replacement != null) {
+            node = replacement;
+            replacement = this.removedPhis.get(node);
+        }
+        return node;
     }
 
     void sealBlock(Block block) {
@@ -160,7 +202,7 @@ class GraphConstructor {
     private Node readSideEffect(Block block) {
         Node node = this.currentSideEffect.get(block);
         if (node != null) {
-            return node;
+            return replacementOf(node);
         }
         return readSideEffectRecursive(block);
     }
@@ -171,8 +213,8 @@ class GraphConstructor {
             val = newPhi();
             Phi old = this.incompleteSideEffectPhis.put(block, (Phi) val);
             assert old == null : "double readSideEffectRecursive for " + block;
-        } else if (block.predecessors().size() == 1) {
-            val = readSideEffect(block.predecessors().getFirst().block());
+        } else if (block.predecessorCount() == 1) {
+            val = readSideEffect(block.predecessor(0).block());
         } else {
             val = newPhi();
             writeSideEffect(block, val);
@@ -183,8 +225,9 @@ class GraphConstructor {
     }
 
     Node addPhiOperands(Phi phi) {
-        for (Node pred : phi.block().predecessors()) {
-            phi.appendOperand(readSideEffect(pred.block()));
+        Block block = phi.block();
+        for (int i = 0; i < block.predecessorCount(); i++) {
+            phi.appendOperand(readSideEffect(block.predecessor(i).block()));
         }
         return tryRemoveTrivialPhi(phi);
     }
@@ -2,18 +2,14 @@ package edu.kit.kastel.vads.compiler.ir;
 
 import edu.kit.kastel.vads.compiler.ir.node.Block;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
-
-import java.util.IdentityHashMap;
-import java.util.LinkedHashSet;
-import java.util.Map;
-import java.util.SequencedSet;
-import java.util.Set;
+import edu.kit.kastel.vads.compiler.ir.util.DebugInfoHelper;
 
 public class IrGraph {
-    private final Map<Node, SequencedSet<Node>> successors = new IdentityHashMap<>();
+    private int nodeCount;
     private final Block startBlock;
     private final Block endBlock;
     private final String name;
+    private final DebugInfoHelper debugInfoHelper = new DebugInfoHelper();
 
     public IrGraph(String name) {
         this.name = name;
@@ -21,21 +17,15 @@ public class IrGraph {
         this.endBlock = new Block(this);
     }
 
-    public void registerSuccessor(Node node, Node successor) {
-        this.successors.computeIfAbsent(node, _ -> new LinkedHashSet<>()).add(successor);
-    }
-
-    public void removeSuccessor(Node node, Node oldSuccessor) {
-        this.successors.computeIfAbsent(node, _ -> new LinkedHashSet<>()).remove(oldSuccessor);
+    /// Called by [Node] on construction.
+    /// {@return the id for the next node of this graph}
+    public int nextNodeId() {
+        return this.nodeCount++;
     }
 
-    /// {@return the set of nodes that have the given node as one of their inputs}
-    public Set<Node> successors(Node node) {
-        SequencedSet<Node> successors = this.successors.get(node);
-        if (successors == null) {
-            return Set.of();
-        }
-        return Set.copyOf(successors);
+    /// {@return the number of nodes created for this graph, an upper bound for all [Node#id()]s}
+    public int nodeCount() {
+        return this.nodeCount;
     }
 
     public Block startBlock() {
@@ -46,6 +36,11 @@ public class IrGraph {
         return this.endBlock;
     }
 
+    /// {@return the debug info attached to nodes created for this graph}
+    public DebugInfoHelper debugInfoHelper() {
+        return this.debugInfoHelper;
+    }
+
     /// {@return the name of this graph}
     public String name() {
         return name;
@@ -47,7 +47,7 @@ public class SsaTranslation {
     }
 
     public IrGraph translate() {
-        var visitor = new SsaTranslationVisitor();
+        var visitor = new SsaTranslationVisitor(this.constructor.graph().debugInfoHelper());
         this.function.accept(visitor, this);
         return this.constructor.graph();
     }
@@ -70,14 +70,19 @@ public class SsaTranslation {
         private static final Optional<Node> NOT_AN_EXPRESSION = Optional.empty();
 
         private final Deque<DebugInfo> debugStack = new ArrayDeque<>();
+        private final DebugInfoHelper debugInfoHelper;
+
+        SsaTranslationVisitor(DebugInfoHelper debugInfoHelper) {
+            this.debugInfoHelper = debugInfoHelper;
+        }
 
         private void pushSpan(Tree tree) {
-            this.debugStack.push(DebugInfoHelper.getDebugInfo());
-            DebugInfoHelper.setDebugInfo(new DebugInfo.SourceInfo(tree.span()));
+            this.debugStack.push(this.debugInfoHelper.getDebugInfo());
+            this.debugInfoHelper.setDebugInfo(new DebugInfo.SourceInfo(tree.span()));
         }
 
         private void popSpan() {
-            DebugInfoHelper.setDebugInfo(this.debugStack.pop());
+            this.debugInfoHelper.setDebugInfo(this.debugStack.pop());
         }
 
         @Override
@@ -1,6 +1,7 @@
 package edu.kit.kastel.vads.compiler.ir.node;
 
-public sealed abstract class BinaryOperationNode extends Node permits AddNode, DivNode, ModNode, MulNode, SubNode {
+public sealed abstract class BinaryOperationNode extends Node
+    permits AddNode, DivModNode, DivNode, ModNode, MulhNode, MulNode, ShlNode, ShrNode, ShrsNode, SubNode {
     public static final int LEFT = 0;
     public static final int RIGHT = 1;
 
@@ -13,7 +14,7 @@ public sealed abstract class BinaryOperationNode extends Node permits AddNode, D
     }
 
     protected static int commutativeHashCode(BinaryOperationNode node) {
-        int h = node.block().hashCode();
+        int h = node.block().id();
         // commutative operation: we want h(op(x, y)) == h(op(y, x))
         h += 31 * (predecessorHash(node, LEFT) ^ predecessorHash(node, RIGHT));
         return h;
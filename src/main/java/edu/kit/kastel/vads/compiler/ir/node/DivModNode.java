@@ -0,0 +1,17 @@
+package edu.kit.kastel.vads.compiler.ir.node;
+
+/// Computes quotient and remainder of the same operands at once. Both values are accessed through
+/// projections with [ProjNode.DivModProjectionInfo], the node itself has no value.
+public final class DivModNode extends BinaryOperationNode {
+    public static final int SIDE_EFFECT = 2;
+    public DivModNode(Block block, Node left, Node right, Node sideEffect) {
+        super(block, left, right, sideEffect);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        // side effect, must be very careful with value numbering.
+        // this is the most conservative approach
+        return obj == this;
+    }
+}
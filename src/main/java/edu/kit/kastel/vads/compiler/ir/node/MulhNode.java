@@ -0,0 +1,19 @@
+package edu.kit.kastel.vads.compiler.ir.node;
+
+/// The upper 32 bits of the signed 64-bit product of both operands.
+public final class MulhNode extends BinaryOperationNode {
+    public MulhNode(Block block, Node left, Node right) {
+        super(block, left, right);
+    }
+
+    @SuppressWarnings("EqualsDoesntCheckParameterClass") // we do, but not here
+    @Override
+    public boolean equals(Object obj) {
+        return commutativeEquals(this, obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return commutativeHashCode(this);
+    }
+}
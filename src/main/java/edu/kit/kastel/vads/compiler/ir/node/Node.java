@@ -2,31 +2,45 @@ package edu.kit.kastel.vads.compiler.ir.node;
 
 import edu.kit.kastel.vads.compiler.ir.util.DebugInfo;
 import edu.kit.kastel.vads.compiler.ir.IrGraph;
-import edu.kit.kastel.vads.compiler.ir.util.DebugInfoHelper;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /// The base class for all nodes.
+///
+/// Besides its predecessors, each node knows its uses: the nodes that have it as predecessor, together
+/// with the index of the predecessor slot. A node used twice by the same node has two uses.
 public sealed abstract class Node permits BinaryOperationNode, Block, ConstIntNode, Phi, ProjNode, ReturnNode, StartNode {
     private final IrGraph graph;
+    private final int id;
     private final Block block;
     private final List<Node> predecessors = new ArrayList<>();
+    private final List<Node> predecessorsView = Collections.unmodifiableList(this.predecessors);
+    private Node[] users = NO_USERS;
+    private int[] userInputIndices = NO_INDICES;
+    private int useCount;
     private final DebugInfo debugInfo;
 
+    private static final Node[] NO_USERS = new Node[0];
+    private static final int[] NO_INDICES = new int[0];
+
     protected Node(Block block, Node... predecessors) {
         this.graph = block.graph();
+        this.id = this.graph.nextNodeId();
         this.block = block;
         this.predecessors.addAll(List.of(predecessors));
-        for (Node predecessor : predecessors) {
-            graph.registerSuccessor(predecessor, this);
+        for (int i = 0; i < predecessors.length; i++) {
+            predecessors[i].addUse(this, i);
         }
-        this.debugInfo = DebugInfoHelper.getDebugInfo();
+        this.debugInfo = this.graph.debugInfoHelper().getDebugInfo();
     }
 
     protected Node(IrGraph graph) {
         assert this.getClass() == Block.class : "must be used by Block only";
         this.graph = graph;
+        this.id = graph.nextNodeId();
         this.block = (Block) this;
         this.debugInfo = DebugInfo.NoInfo.INSTANCE;
     }
@@ -35,29 +49,105 @@ public sealed abstract class Node permits BinaryOperationNode, Block, ConstIntNo
         return this.graph;
     }
 
+    /// {@return the id of this node, unique within its graph}
+    /// Ids are assigned densely in creation order, starting at 0.
+    public final int id() {
+        return this.id;
+    }
+
     public final Block block() {
         return this.block;
     }
 
+    /// {@return an unmodifiable view of the predecessors of this node}
+    /// The view reflects later changes. Hot loops should prefer [#predecessorCount()] and [#predecessor(int)].
     public final List<? extends Node> predecessors() {
-        return List.copyOf(this.predecessors);
+        return this.predecessorsView;
+    }
+
+    public final int predecessorCount() {
+        return this.predecessors.size();
     }
 
     public final void setPredecessor(int idx, Node node) {
-        this.graph.removeSuccessor(this.predecessors.get(idx), this);
+        this.predecessors.get(idx).removeUse(this, idx);
         this.predecessors.set(idx, node);
-        this.graph.registerSuccessor(node, this);
+        node.addUse(this, idx);
     }
 
     public final void addPredecessor(Node node) {
         this.predecessors.add(node);
-        this.graph.registerSuccessor(node, this);
+        node.addUse(this, this.predecessors.size() - 1);
+    }
+
+    /// Removes all predecessors, e.g. when this node is no longer needed.
+    public final void clearPredecessors() {
+        for (int idx = 0; idx < this.predecessors.size(); idx++) {
+            this.predecessors.get(idx).removeUse(this, idx);
+        }
+        this.predecessors.clear();
     }
 
     public final Node predecessor(int idx) {
         return this.predecessors.get(idx);
     }
 
+    /// {@return the number of uses of this node}
+    public final int useCount() {
+        return this.useCount;
+    }
+
+    /// {@return the node of the use with the given index}
+    /// Uses are unordered and indices change when uses are removed.
+    public final Node user(int use) {
+        return this.users[use];
+    }
+
+    /// {@return the index of the predecessor of [#user(int)] that refers to this node}
+    public final int userInputIndex(int use) {
+        return this.userInputIndices[use];
+    }
+
+    /// Makes all uses of this node refer to the replacement instead. Afterwards, this node has no uses.
+    public final void replaceAllUsesWith(Node replacement) {
+        if (replacement == this) {
+            return;
+        }
+        for (int use = 0; use < this.useCount; use++) {
+            Node user = this.users[use];
+            int idx = this.userInputIndices[use];
+            user.predecessors.set(idx, replacement);
+            replacement.addUse(user, idx);
+            this.users[use] = null;
+        }
+        this.useCount = 0;
+    }
+
+    private void addUse(Node user, int idx) {
+        if (this.useCount == this.users.length) {
+            int capacity = Math.max(4, this.useCount * 2);
+            this.users = Arrays.copyOf(this.users, capacity);
+            this.userInputIndices = Arrays.copyOf(this.userInputIndices, capacity);
+        }
+        this.users[this.useCount] = user;
+        this.userInputIndices[this.useCount] = idx;
+        this.useCount++;
+    }
+
+    private void removeUse(Node user, int idx) {
+        for (int use = 0; use < this.useCount; use++) {
+            if (this.users[use] == user && this.userInputIndices[use] == idx) {
+                // order doesn't matter, move the last use into the gap
+                int last = --this.useCount;
+                this.users[use] = this.users[last];
+                this.userInputIndices[use] = this.userInputIndices[last];
+                this.users[last] = null;
+                return;
+            }
+        }
+        throw new IllegalStateException(user + " is not a user of " + this);
+    }
+
     @Override
     public final String toString() {
         return (this.getClass().getSimpleName().replace("Node", "") + " " + info()).stripTrailing();
@@ -72,6 +162,6 @@ public sealed abstract class Node permits BinaryOperationNode, Block, ConstIntNo
     }
 
     protected static int predecessorHash(Node node, int predecessor) {
-        return System.identityHashCode(node.predecessor(predecessor));
+        return node.predecessor(predecessor).id();
     }
 }
@@ -25,4 +25,10 @@ public final class ProjNode extends Node {
     public enum SimpleProjectionInfo implements ProjectionInfo {
         RESULT, SIDE_EFFECT
     }
+
+    /// The values of a [DivModNode]. Unlike [SimpleProjectionInfo#RESULT], these projections are
+    /// values on their own.
+    public enum DivModProjectionInfo implements ProjectionInfo {
+        QUOTIENT, REMAINDER
+    }
 }
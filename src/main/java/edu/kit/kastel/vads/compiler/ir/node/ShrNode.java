@@ -0,0 +1,8 @@
+package edu.kit.kastel.vads.compiler.ir.node;
+
+/// Shifts the left operand to the right by the right operand, filling in zeros.
+public final class ShrNode extends BinaryOperationNode {
+    public ShrNode(Block block, Node left, Node right) {
+        super(block, left, right);
+    }
+}
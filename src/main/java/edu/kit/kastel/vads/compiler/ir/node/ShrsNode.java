@@ -0,0 +1,8 @@
+package edu.kit.kastel.vads.compiler.ir.node;
+
+/// Shifts the left operand to the right by the right operand, filling in copies of the sign bit.
+public final class ShrsNode extends BinaryOperationNode {
+    public ShrsNode(Block block, Node left, Node right) {
+        super(block, left, right);
+    }
+}
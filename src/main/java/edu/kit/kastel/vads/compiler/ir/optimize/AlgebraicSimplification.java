@@ -0,0 +1,103 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.node.AddNode;
+import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.SubNode;
+import org.jspecify.annotations.Nullable;
+
+/// Applies algebraic identities before pure operations are constructed, so the graph never contains
+/// the redundant nodes. All other requests are passed on to the wrapped optimizer.
+///
+/// Constant operands are moved to the right of commutative operations, and chains of constants are
+/// reassociated, e.g. `(a + 1) + 2` becomes `a + 3`. All identities hold for wrapping `int` arithmetic.
+public class AlgebraicSimplification implements Optimizer {
+    private final Optimizer next;
+
+    public AlgebraicSimplification(Optimizer next) {
+        this.next = next;
+    }
+
+    @Override
+    public Node transform(Node node) {
+        return this.next.transform(node);
+    }
+
+    @Override
+    public Node constInt(Block block, int value) {
+        return this.next.constInt(block, value);
+    }
+
+    @Override
+    public Node binary(PureBinaryOperation operation, Block block, Node left, Node right) {
+        if (operation.isCommutative() && left instanceof ConstIntNode && !(right instanceof ConstIntNode)) {
+            return binary(operation, block, right, left);
+        }
+        if (left instanceof ConstIntNode l && right instanceof ConstIntNode r) {
+            return constant(block, operation.evaluate(l.value(), r.value()));
+        }
+        @Nullable Node simplified = switch (operation) {
+            case ADD -> add(block, left, right);
+            case SUB -> sub(block, left, right);
+            case MUL -> mul(block, left, right);
+            case MULH, SHL, SHR, SHRS -> null;
+        };
+        return simplified != null ? simplified : this.next.binary(operation, block, left, right);
+    }
+
+    private @Nullable Node add(Block block, Node left, Node right) {
+        if (isConstant(right, 0)) {
+            return left; // x + 0 = x
+        }
+        if (right instanceof ConstIntNode c2 && left instanceof AddNode add
+            && add.predecessor(BinaryOperationNode.RIGHT) instanceof ConstIntNode c1) {
+            // (a + c1) + c2 = a + (c1 + c2)
+            return binary(PureBinaryOperation.ADD, block, add.predecessor(BinaryOperationNode.LEFT),
+                constant(block, c1.value() + c2.value()));
+        }
+        return null;
+    }
+
+    private @Nullable Node sub(Block block, Node left, Node right) {
+        if (left == right) {
+            return constant(block, 0); // x - x = 0
+        }
+        if (right instanceof ConstIntNode c) {
+            // x - c = x + (-c), so constant chains only consist of additions
+            return binary(PureBinaryOperation.ADD, block, left, constant(block, -c.value()));
+        }
+        if (isConstant(left, 0) && right instanceof SubNode inner
+            && isConstant(inner.predecessor(BinaryOperationNode.LEFT), 0)) {
+            return inner.predecessor(BinaryOperationNode.RIGHT); // 0 - (0 - x) = x
+        }
+        return null;
+    }
+
+    private @Nullable Node mul(Block block, Node left, Node right) {
+        if (isConstant(right, 1)) {
+            return left; // x * 1 = x
+        }
+        if (isConstant(right, 0)) {
+            return right; // x * 0 = 0
+        }
+        if (right instanceof ConstIntNode c2 && left instanceof MulNode mul
+            && mul.predecessor(BinaryOperationNode.RIGHT) instanceof ConstIntNode c1) {
+            // (a * c1) * c2 = a * (c1 * c2)
+            return binary(PureBinaryOperation.MUL, block, mul.predecessor(BinaryOperationNode.LEFT),
+                constant(block, c1.value() * c2.value()));
+        }
+        return null;
+    }
+
+    private Node constant(Block block, int value) {
+        // constants always live in the start block, see GraphConstructor#newConstInt
+        return this.next.constInt(block.graph().startBlock(), value);
+    }
+
+    private static boolean isConstant(Node node, int value) {
+        return node instanceof ConstIntNode c && c.value() == value;
+    }
+}
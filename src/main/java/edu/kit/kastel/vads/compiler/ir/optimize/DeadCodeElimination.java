@@ -0,0 +1,60 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import edu.kit.kastel.vads.compiler.ir.util.NodeSet;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/// Removes all nodes that don't contribute to the result of a graph.
+///
+/// A node is alive if it is reachable from the end block over predecessors. This includes the side effect
+/// chain, as every return depends on the last side effect. Dead nodes are never visited by the traversals,
+/// but they are still users of live nodes, so they inflate use counts and are seen by passes following
+/// def-use edges. They are found through the users of live nodes and detached from their predecessors,
+/// which in turn reveals dead nodes that were only used by other dead nodes.
+public class DeadCodeElimination implements GraphOptimizer {
+
+    @Override
+    public boolean optimize(IrGraph graph) {
+        List<Node> live = GraphTraversal.postOrder(graph);
+        NodeSet alive = new NodeSet(graph);
+        for (Node node : live) {
+            alive.add(node);
+        }
+        NodeSet dead = new NodeSet(graph);
+        Deque<Node> worklist = new ArrayDeque<>();
+        for (Node node : live) {
+            collectDeadUsers(node, alive, dead, worklist);
+        }
+        boolean changed = !worklist.isEmpty();
+        while (!worklist.isEmpty()) {
+            Node node = worklist.poll();
+            List<Node> predecessors = List.copyOf(node.predecessors());
+            node.clearPredecessors();
+            for (Node predecessor : predecessors) {
+                markDead(predecessor, alive, dead, worklist);
+            }
+            // a dead node can't have live users, but users that are dead as well
+            collectDeadUsers(node, alive, dead, worklist);
+        }
+        return changed;
+    }
+
+    private static void collectDeadUsers(Node node, NodeSet alive, NodeSet dead, Deque<Node> worklist) {
+        for (int i = 0; i < node.useCount(); i++) {
+            markDead(node.user(i), alive, dead, worklist);
+        }
+    }
+
+    private static void markDead(Node node, NodeSet alive, NodeSet dead, Deque<Node> worklist) {
+        // blocks are kept, their nodes refer to them without edges
+        if (!alive.contains(node) && !(node instanceof Block) && dead.add(node)) {
+            worklist.add(node);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.DivModNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivNode;
+import edu.kit.kastel.vads.compiler.ir.node.ModNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import edu.kit.kastel.vads.compiler.ir.util.NodeSupport;
+import org.jspecify.annotations.Nullable;
+
+/// Combines a division and a remainder of the same operands into a single [DivModNode],
+/// as one `idiv` computes both values.
+///
+/// The two nodes must be adjacent in the side effect chain, i.e. either both depend on the same side effect,
+/// or one directly depends on the side effect of the other, as in `q = x / y; r = x % y;`.
+/// Both trap under the same conditions, so the combined node traps exactly when the first of them would.
+public class DivModFusion implements GraphOptimizer {
+
+    @Override
+    public boolean optimize(IrGraph graph) {
+        boolean changed = false;
+        for (Node node : GraphTraversal.postOrder(graph)) {
+            // a division that was already fused has no predecessors anymore
+            if (!(node instanceof DivNode div) || div.predecessorCount() == 0) {
+                continue;
+            }
+            @Nullable ModNode mod = findRemainder(div);
+            if (mod != null) {
+                fuse(div, mod);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static @Nullable ModNode findRemainder(DivNode div) {
+        Node left = div.predecessor(BinaryOperationNode.LEFT);
+        for (int i = 0; i < left.useCount(); i++) {
+            if (left.user(i) instanceof ModNode mod
+                && left.userInputIndex(i) == BinaryOperationNode.LEFT
+                && mod.block() == div.block()
+                && mod.predecessor(BinaryOperationNode.RIGHT) == div.predecessor(BinaryOperationNode.RIGHT)
+                && sideEffectBefore(div, mod) != null) {
+                return mod;
+            }
+        }
+        return null;
+    }
+
+    /// {@return the side effect both nodes can be executed after, or `null` if they aren't adjacent}
+    private static @Nullable Node sideEffectBefore(DivNode div, ModNode mod) {
+        Node divSideEffect = div.predecessor(DivNode.SIDE_EFFECT);
+        Node modSideEffect = mod.predecessor(ModNode.SIDE_EFFECT);
+        if (divSideEffect == modSideEffect) {
+            return divSideEffect;
+        }
+        if (isSideEffectOf(modSideEffect, div)) {
+            return divSideEffect;
+        }
+        if (isSideEffectOf(divSideEffect, mod)) {
+            return modSideEffect;
+        }
+        return null;
+    }
+
+    private static boolean isSideEffectOf(Node sideEffect, Node division) {
+        return sideEffect instanceof ProjNode proj
+            && proj.projectionInfo() == ProjNode.SimpleProjectionInfo.SIDE_EFFECT
+            && proj.predecessor(ProjNode.IN) == division;
+    }
+
+    private static void fuse(DivNode div, ModNode mod) {
+        Block block = div.block();
+        Node sideEffect = sideEffectBefore(div, mod);
+        assert sideEffect != null;
+        DivModNode divMod = new DivModNode(block, div.predecessor(BinaryOperationNode.LEFT),
+            div.predecessor(BinaryOperationNode.RIGHT), sideEffect);
+        Node quotient = new ProjNode(block, divMod, ProjNode.DivModProjectionInfo.QUOTIENT);
+        Node remainder = new ProjNode(block, divMod, ProjNode.DivModProjectionInfo.REMAINDER);
+        Node fusedSideEffect = new ProjNode(block, divMod, ProjNode.SimpleProjectionInfo.SIDE_EFFECT);
+        NodeSupport.replaceDivision(div, quotient, fusedSideEffect);
+        NodeSupport.replaceDivision(mod, remainder, fusedSideEffect);
+    }
+}
@@ -0,0 +1,122 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.AddNode;
+import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivNode;
+import edu.kit.kastel.vads.compiler.ir.node.ModNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulhNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.ShrNode;
+import edu.kit.kastel.vads.compiler.ir.node.ShrsNode;
+import edu.kit.kastel.vads.compiler.ir.node.SubNode;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import edu.kit.kastel.vads.compiler.ir.util.NodeSupport;
+
+/// Replaces divisions by constants with multiplications and shifts, as described in
+/// `Hacker's Delight` by Warren, chapter 10.
+///
+/// Powers of two only need shifts, with a correction that rounds negative dividends towards zero.
+/// Other divisors multiply by a magic number and keep the upper half of the product.
+/// Remainders are computed from the quotient as `n - q * d`.
+///
+/// Only divisions that can't trap are lowered, i.e. the divisor is neither `0` nor `-1`. As the new nodes
+/// are pure, the side effect of the division disappears. Dividing by [Integer#MIN_VALUE] is left alone.
+public class DivisionByConstantLowering implements GraphOptimizer {
+
+    @Override
+    public boolean optimize(IrGraph graph) {
+        boolean changed = false;
+        for (Node node : GraphTraversal.postOrder(graph)) {
+            if (!(node instanceof DivNode || node instanceof ModNode)
+                || !(node.predecessor(BinaryOperationNode.RIGHT) instanceof ConstIntNode divisor)
+                || !canLower(divisor.value())) {
+                continue;
+            }
+            Block block = node.block();
+            Node dividend = node.predecessor(BinaryOperationNode.LEFT);
+            Node quotient = quotient(block, dividend, divisor.value());
+            Node result = node instanceof DivNode
+                ? quotient
+                : new SubNode(block, dividend, new MulNode(block, quotient, divisor));
+            NodeSupport.replaceDivision(node, result);
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static boolean canLower(int divisor) {
+        return divisor != 0 && divisor != -1 && divisor != Integer.MIN_VALUE;
+    }
+
+    private static Node quotient(Block block, Node n, int d) {
+        if (d == 1) {
+            return n;
+        }
+        int absolute = Math.abs(d);
+        Node q;
+        if (Integer.bitCount(absolute) == 1) {
+            int k = Integer.numberOfTrailingZeros(absolute);
+            // add 2^k - 1 to negative dividends, so the arithmetic shift rounds towards zero
+            Node sign = k == 1 ? n : new ShrsNode(block, n, constant(block, k - 1));
+            Node bias = new ShrNode(block, sign, constant(block, 32 - k));
+            q = new ShrsNode(block, new AddNode(block, n, bias), constant(block, k));
+            return d < 0 ? new SubNode(block, constant(block, 0), q) : q;
+        }
+        Magic magic = Magic.of(d);
+        q = new MulhNode(block, n, constant(block, magic.multiplier()));
+        if (d > 0 && magic.multiplier() < 0) {
+            q = new AddNode(block, q, n);
+        } else if (d < 0 && magic.multiplier() > 0) {
+            q = new SubNode(block, q, n);
+        }
+        if (magic.shift() > 0) {
+            q = new ShrsNode(block, q, constant(block, magic.shift()));
+        }
+        // add one to negative quotients
+        return new AddNode(block, q, new ShrNode(block, q, constant(block, 31)));
+    }
+
+    private static Node constant(Block block, int value) {
+        return new ConstIntNode(block.graph().startBlock(), value);
+    }
+
+    /// The magic number and shift amount for signed division by `d`, with `2 <= |d| < 2^31`.
+    record Magic(int multiplier, int shift) {
+        private static final long TWO_31 = 1L << 31;
+        private static final long MASK = 0xFFFF_FFFFL;
+
+        static Magic of(int d) {
+            long ad = Math.abs((long) d);
+            long t = TWO_31 + (d >>> 31);
+            long anc = t - 1 - t % ad; // absolute value of nc
+            int p = 31;
+            long q1 = TWO_31 / anc;
+            long r1 = TWO_31 - q1 * anc;
+            long q2 = TWO_31 / ad;
+            long r2 = TWO_31 - q2 * ad;
+            long delta;
+            do {
+                p++;
+                q1 = (2 * q1) & MASK;
+                r1 = (2 * r1) & MASK;
+                if (r1 >= anc) {
+                    q1 = (q1 + 1) & MASK;
+                    r1 = (r1 - anc) & MASK;
+                }
+                q2 = (2 * q2) & MASK;
+                r2 = (2 * r2) & MASK;
+                if (r2 >= ad) {
+                    q2 = (q2 + 1) & MASK;
+                    r2 = (r2 - ad) & MASK;
+                }
+                delta = ad - r2;
+            } while (q1 < delta || (q1 == delta && r1 == 0));
+            int multiplier = (int) (q2 + 1);
+            return new Magic(d < 0 ? -multiplier : multiplier, p - 32);
+        }
+    }
+}
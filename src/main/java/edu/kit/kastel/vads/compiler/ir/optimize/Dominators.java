@@ -0,0 +1,127 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import edu.kit.kastel.vads.compiler.ir.util.NodeMap;
+import edu.kit.kastel.vads.compiler.ir.util.NodeSet;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/// The dominator tree of the blocks of a graph, computed as described in
+/// [`A Simple, Fast Dominance Algorithm`](https://www.cs.tufts.edu/~nr/cs257/archive/keith-cooper/dom14.pdf)
+/// by Cooper, Harvey and Kennedy.
+final class Dominators {
+    private final NodeMap<Block> immediateDominators;
+
+    private Dominators(NodeMap<Block> immediateDominators) {
+        this.immediateDominators = immediateDominators;
+    }
+
+    static Dominators compute(IrGraph graph) {
+        NodeMap<List<Block>> successors = new NodeMap<>(graph);
+        NodeSet blocks = new NodeSet(graph);
+        for (Node node : GraphTraversal.postOrder(graph)) {
+            Block block = node.block();
+            if (!blocks.add(block)) {
+                continue;
+            }
+            for (int i = 0; i < block.predecessorCount(); i++) {
+                successors.computeIfAbsent(block.predecessor(i).block(), _ -> new ArrayList<>()).add(block);
+            }
+        }
+
+        List<Block> postOrder = postOrder(graph.startBlock(), successors);
+        NodeMap<Integer> numbers = new NodeMap<>(graph);
+        for (int i = 0; i < postOrder.size(); i++) {
+            numbers.put(postOrder.get(i), i);
+        }
+        NodeMap<Block> idoms = new NodeMap<>(graph);
+        idoms.put(graph.startBlock(), graph.startBlock());
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Block block : postOrder.reversed()) {
+                if (block == graph.startBlock()) {
+                    continue;
+                }
+                Block idom = null;
+                for (int i = 0; i < block.predecessorCount(); i++) {
+                    Block predecessor = block.predecessor(i).block();
+                    if (idoms.get(predecessor) == null) {
+                        continue; // not processed yet or unreachable
+                    }
+                    idom = idom == null ? predecessor : intersect(predecessor, idom, idoms, numbers);
+                }
+                if (idom != null && idoms.put(block, idom) != idom) {
+                    changed = true;
+                }
+            }
+        }
+        return new Dominators(idoms);
+    }
+
+    /// {@return whether every path from the start block to `block` passes `dominator`}
+    /// A block dominates itself. Unreachable blocks are dominated by no other block.
+    boolean dominates(Block dominator, Block block) {
+        Block current = block;
+        while (current != dominator) {
+            Block idom = this.immediateDominators.get(current);
+            if (idom == null || idom == current) {
+                return false;
+            }
+            current = idom;
+        }
+        return true;
+    }
+
+    private static Block intersect(Block a, Block b, NodeMap<Block> idoms, NodeMap<Integer> numbers) {
+        Block finger1 = a;
+        Block finger2 = b;
+        while (finger1 != finger2) {
+            while (number(finger1, numbers) < number(finger2, numbers)) {
+                finger1 = idoms.get(finger1);
+            }
+            while (number(finger2, numbers) < number(finger1, numbers)) {
+                finger2 = idoms.get(finger2);
+            }
+        }
+        return finger1;
+    }
+
+    private static int number(@Nullable Block block, NodeMap<Integer> numbers) {
+        assert block != null : "walked past the start block";
+        return numbers.getOrDefault(block, -1);
+    }
+
+    private static List<Block> postOrder(Block start, NodeMap<List<Block>> successors) {
+        List<Block> order = new ArrayList<>();
+        NodeSet visited = new NodeSet(start.graph());
+        Deque<Block> stack = new ArrayDeque<>();
+        Deque<Integer> next = new ArrayDeque<>();
+        visited.add(start);
+        stack.push(start);
+        next.push(0);
+        while (!stack.isEmpty()) {
+            Block block = stack.peek();
+            List<Block> blockSuccessors = successors.getOrDefault(block, List.of());
+            int idx = next.pop();
+            if (idx < blockSuccessors.size()) {
+                next.push(idx + 1);
+                Block successor = blockSuccessors.get(idx);
+                if (visited.add(successor)) {
+                    stack.push(successor);
+                    next.push(0);
+                }
+            } else {
+                order.add(stack.pop());
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,127 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/// Hash-based global value numbering.
+///
+/// Nodes are visited in post-order, so their inputs are already numbered. Pure operations and constants
+/// are congruent if they have the same kind and congruent inputs, no matter which block they are in.
+/// Phis are congruent if they are in the same block and have congruent operands at every position.
+/// A phi whose operands are all congruent to the same value is replaced by that value.
+///
+/// A node is only replaced by a congruent node whose block dominates its own block, so the replacement
+/// is available wherever the node was used. Operations with side effects are never numbered.
+public class GlobalValueNumbering implements GraphOptimizer {
+    private int hits;
+    private int misses;
+
+    @Override
+    public boolean optimize(IrGraph graph) {
+        // nodes surviving an earlier run would be counted again
+        this.misses = 0;
+        Dominators dominators = Dominators.compute(graph);
+        Map<Key, Node> representatives = new HashMap<>();
+        boolean changed = false;
+        for (Node node : GraphTraversal.postOrder(graph)) {
+            @Nullable Node replacement = node instanceof Phi phi ? trivialValue(phi) : null;
+            if (replacement == null) {
+                Key key = key(node);
+                if (key == null) {
+                    continue;
+                }
+                Node representative = representatives.putIfAbsent(key, node);
+                if (representative == null || !dominators.dominates(representative.block(), node.block())) {
+                    this.misses++;
+                    continue;
+                }
+                replacement = representative;
+            }
+            this.hits++;
+            node.clearPredecessors();
+            node.replaceAllUsesWith(replacement);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /// {@return the number of nodes replaced by a congruent node, over all runs}
+    public int hits() {
+        return this.hits;
+    }
+
+    /// {@return the number of nodes that were the first of their congruence class in the last run}
+    public int misses() {
+        return this.misses;
+    }
+
+    private static @Nullable Key key(Node node) {
+        return switch (node) {
+            case BinaryOperationNode binary -> {
+                PureBinaryOperation operation = PureBinaryOperation.of(binary);
+                if (operation == null) {
+                    yield null; // side effects
+                }
+                int[] inputs = inputs(binary);
+                if (operation.isCommutative()) {
+                    Arrays.sort(inputs);
+                }
+                yield new Key(binary.getClass(), -1, inputs);
+            }
+            case ConstIntNode constant -> new Key(ConstIntNode.class, constant.value(), new int[0]);
+            // phis of different blocks select their operands by different control flow
+            case Phi phi -> new Key(Phi.class, phi.block().id(), inputs(phi));
+            default -> null;
+        };
+    }
+
+    private static int[] inputs(Node node) {
+        int[] inputs = new int[node.predecessorCount()];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = node.predecessor(i).id();
+        }
+        return inputs;
+    }
+
+    private static @Nullable Node trivialValue(Phi phi) {
+        Node same = null;
+        for (int i = 0; i < phi.predecessorCount(); i++) {
+            Node operand = phi.predecessor(i);
+            if (operand == phi || operand == same) {
+                continue;
+            }
+            if (same != null) {
+                return null;
+            }
+            same = operand;
+        }
+        return same;
+    }
+
+    /// @param kind the class of the node
+    /// @param attribute the value of a constant or the block of a phi, unused otherwise
+    /// @param inputs the ids of the inputs, sorted for commutative operations
+    private record Key(Class<?> kind, int attribute, int[] inputs) {
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key other
+                && this.kind == other.kind
+                && this.attribute == other.attribute
+                && Arrays.equals(this.inputs, other.inputs);
+        }
+
+        @Override
+        public int hashCode() {
+            return (this.kind.hashCode() * 31 + this.attribute) * 31 + Arrays.hashCode(this.inputs);
+        }
+    }
+}
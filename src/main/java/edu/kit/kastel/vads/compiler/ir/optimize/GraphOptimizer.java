@@ -0,0 +1,11 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+
+/// An optimization that transforms a whole graph after its construction,
+/// as opposed to an [Optimizer] that sees nodes one by one while they are created.
+public interface GraphOptimizer {
+
+    /// {@return whether the graph changed}
+    boolean optimize(IrGraph graph);
+}
@@ -1,20 +1,156 @@
 package edu.kit.kastel.vads.compiler.ir.optimize;
 
+import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
+import org.jspecify.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
-
-/// This depends on [Node#equals(java.lang.Object)] and  [Node#hashCode()] methods.
-/// As long as they take the block into account, it is only local, but replacement
-/// is extremely simple.
-/// When using classes like [HashMap] or [java.util.HashSet] without this optimization,
-/// the [Node#equals(java.lang.Object)] and  [Node#hashCode()] methods must be adjusted.
+/// Deduplicates constants and pure binary operations within a block.
+///
+/// Known nodes are kept in an open-addressed hash table keyed by operation, block and the identities
+/// of the inputs. [#binary] and [#constInt] probe the table before constructing a node,
+/// so duplicates are never allocated and never appear as users of their inputs.
 public class LocalValueNumbering implements Optimizer {
-    private final Map<Node, Node> knownNodes = new HashMap<>();
+    private @Nullable Node[] table = new Node[64];
+    private int size;
 
     @Override
     public Node transform(Node node) {
-        return this.knownNodes.computeIfAbsent(node, n -> n);
+        Node known = switch (node) {
+            case ConstIntNode c -> findConstInt(c.block(), c.value());
+            case BinaryOperationNode binary -> {
+                PureBinaryOperation operation = PureBinaryOperation.of(binary);
+                yield operation == null ? binary : findBinary(
+                    operation, binary.block(),
+                    binary.predecessor(BinaryOperationNode.LEFT), binary.predecessor(BinaryOperationNode.RIGHT)
+                );
+            }
+            default -> node; // not deduplicated
+        };
+        if (known == null) {
+            insert(node);
+            return node;
+        }
+        if (known != node) {
+            // the duplicate is dropped, it must not stay a user of its inputs
+            node.clearPredecessors();
+        }
+        return known;
+    }
+
+    @Override
+    public Node binary(PureBinaryOperation operation, Block block, Node left, Node right) {
+        Node known = findBinary(operation, block, left, right);
+        if (known != null) {
+            return known;
+        }
+        Node node = operation.create(block, left, right);
+        insert(node);
+        return node;
+    }
+
+    @Override
+    public Node constInt(Block block, int value) {
+        Node known = findConstInt(block, value);
+        if (known != null) {
+            return known;
+        }
+        Node node = new ConstIntNode(block, value);
+        insert(node);
+        return node;
+    }
+
+    private @Nullable Node findBinary(PureBinaryOperation operation, Block block, Node left, Node right) {
+        int mask = this.table.length - 1;
+        for (int slot = binaryHash(operation, block, left, right) & mask; ; slot = (slot + 1) & mask) {
+            Node candidate = this.table[slot];
+            if (candidate == null) {
+                return null;
+            }
+            if (candidate.block() == block && operation.matches(candidate)
+                && sameInputs(operation, candidate, left, right)) {
+                return candidate;
+            }
+        }
+    }
+
+    private @Nullable Node findConstInt(Block block, int value) {
+        int mask = this.table.length - 1;
+        for (int slot = constIntHash(block, value) & mask; ; slot = (slot + 1) & mask) {
+            Node candidate = this.table[slot];
+            if (candidate == null) {
+                return null;
+            }
+            if (candidate.block() == block && candidate instanceof ConstIntNode c && c.value() == value) {
+                return candidate;
+            }
+        }
+    }
+
+    private void insert(Node node) {
+        // keep the load factor below 1/2, probe sequences stay short
+        if (2 * (this.size + 1) > this.table.length) {
+            @Nullable Node[] old = this.table;
+            this.table = new Node[old.length * 2];
+            for (Node known : old) {
+                if (known != null) {
+                    place(known);
+                }
+            }
+        }
+        place(node);
+        this.size++;
+    }
+
+    private void place(Node node) {
+        int mask = this.table.length - 1;
+        int slot = hash(node) & mask;
+        while (this.table[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        this.table[slot] = node;
+    }
+
+    private static int hash(Node node) {
+        if (node instanceof ConstIntNode c) {
+            return constIntHash(c.block(), c.value());
+        }
+        PureBinaryOperation operation = PureBinaryOperation.of(node);
+        assert operation != null : "not hash consed: " + node;
+        return binaryHash(
+            operation, node.block(), node.predecessor(BinaryOperationNode.LEFT),
+            node.predecessor(BinaryOperationNode.RIGHT)
+        );
+    }
+
+    private static int binaryHash(PureBinaryOperation operation, Block block, Node left, Node right) {
+        int a = left.id();
+        int b = right.id();
+        if (operation.isCommutative() && a > b) {
+            // op(x, y) and op(y, x) must end up in the same probe sequence
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        return mix(((operation.ordinal() * 31 + block.id()) * 31 + a) * 31 + b);
+    }
+
+    private static int constIntHash(Block block, int value) {
+        return mix((-1 * 31 + block.id()) * 31 + value);
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean sameInputs(PureBinaryOperation operation, Node candidate, Node left, Node right) {
+        Node candidateLeft = candidate.predecessor(BinaryOperationNode.LEFT);
+        Node candidateRight = candidate.predecessor(BinaryOperationNode.RIGHT);
+        if (candidateLeft == left && candidateRight == right) {
+            return true;
+        }
+        return operation.isCommutative() && candidateLeft == right && candidateRight == left;
     }
 }
@@ -0,0 +1,39 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import java.util.List;
+
+/// Trades compile time for code quality, similar to the `-O` flags of other compilers.
+public enum OptimizationLevel {
+    /// Builds the graph as written and runs no passes.
+    O0,
+    /// Simplifies and numbers nodes during construction, then folds constants and removes dead code once.
+    O1,
+    /// Runs all passes until they reach a fixed point.
+    O2;
+
+    /// {@return the optimizer to apply while constructing the graphs}
+    public Optimizer constructionOptimizer() {
+        return switch (this) {
+            case O0 -> node -> node;
+            case O1, O2 -> new AlgebraicSimplification(new LocalValueNumbering());
+        };
+    }
+
+    /// {@return the passes to run on the constructed graphs}
+    public PassManager passManager(boolean collectStatistics) {
+        return switch (this) {
+            case O0 -> new PassManager(List.of(), false, collectStatistics);
+            case O1 -> new PassManager(List.of(
+                new SparseConditionalConstantPropagation(),
+                new DeadCodeElimination()
+            ), false, collectStatistics);
+            case O2 -> new PassManager(List.of(
+                new SparseConditionalConstantPropagation(),
+                new DivisionByConstantLowering(),
+                new DivModFusion(),
+                new GlobalValueNumbering(),
+                new DeadCodeElimination()
+            ), true, collectStatistics);
+        };
+    }
+}
@@ -1,9 +1,23 @@
 package edu.kit.kastel.vads.compiler.ir.optimize;
 
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
 
 /// An interface that allows replacing a node with a more optimal one.
+///
+/// Nodes register themselves as users of their inputs on construction, so an optimizer that
+/// drops a node passed to [#transform(Node)] must detach it from its inputs.
+/// The factory methods allow optimizers to look up existing nodes before constructing a new one.
 public interface Optimizer {
 
     Node transform(Node node);
+
+    default Node binary(PureBinaryOperation operation, Block block, Node left, Node right) {
+        return transform(operation.create(block, left, right));
+    }
+
+    default Node constInt(Block block, int value) {
+        return transform(new ConstIntNode(block, value));
+    }
 }
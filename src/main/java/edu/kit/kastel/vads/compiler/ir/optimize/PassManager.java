@@ -0,0 +1,92 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/// Runs a pipeline of passes on each graph, optionally until none of them changes the graph anymore.
+///
+/// If statistics are collected, each run of a pass records its wall time, the bytes allocated by the current
+/// thread and the number of live nodes before and after. Counting the nodes traverses the graph twice per pass,
+/// so statistics are off by default.
+public class PassManager implements GraphOptimizer {
+    /// Bounds the iterations if passes keep undoing each other.
+    static final int MAX_ITERATIONS = 16;
+
+    private final List<GraphOptimizer> passes;
+    private final boolean fixedPoint;
+    private final boolean collectStatistics;
+    private final List<PassStatistics> statistics = new ArrayList<>();
+
+    /// @param passes the passes to run, in order
+    /// @param fixedPoint whether to repeat the pipeline as long as any pass changes the graph
+    /// @param collectStatistics whether to record [PassStatistics] for each run of a pass
+    public PassManager(List<? extends GraphOptimizer> passes, boolean fixedPoint, boolean collectStatistics) {
+        this.passes = List.copyOf(passes);
+        this.fixedPoint = fixedPoint;
+        this.collectStatistics = collectStatistics;
+    }
+
+    @Override
+    public boolean optimize(IrGraph graph) {
+        boolean changed = false;
+        for (int iteration = 1; iteration <= MAX_ITERATIONS; iteration++) {
+            boolean changedInIteration = false;
+            for (GraphOptimizer pass : this.passes) {
+                changedInIteration |= run(pass, graph, iteration);
+            }
+            changed |= changedInIteration;
+            if (!this.fixedPoint || !changedInIteration) {
+                break;
+            }
+        }
+        return changed;
+    }
+
+    private boolean run(GraphOptimizer pass, IrGraph graph, int iteration) {
+        if (!this.collectStatistics) {
+            return pass.optimize(graph);
+        }
+        int nodesBefore = GraphTraversal.postOrder(graph).size();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        boolean changed = pass.optimize(graph);
+        long nanos = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+        int nodesAfter = GraphTraversal.postOrder(graph).size();
+        this.statistics.add(new PassStatistics(
+            graph.name(),
+            pass.getClass().getSimpleName(),
+            iteration,
+            nanos,
+            allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore,
+            nodesBefore,
+            nodesAfter
+        ));
+        return changed;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean hotspotThreads
+            && hotspotThreads.isThreadAllocatedMemorySupported()
+            && hotspotThreads.isThreadAllocatedMemoryEnabled()) {
+            return hotspotThreads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /// {@return the passes of this pipeline, in order}
+    public List<GraphOptimizer> passes() {
+        return this.passes;
+    }
+
+    /// {@return the statistics of all passes run so far, empty if statistics are not collected}
+    public List<PassStatistics> statistics() {
+        return List.copyOf(this.statistics);
+    }
+}
@@ -0,0 +1,28 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+/// Describes a single run of a pass on a single function.
+///
+/// @param function the name of the optimized graph
+/// @param pass the simple class name of the pass
+/// @param iteration the iteration of the pipeline the pass ran in, starting at `1`
+/// @param nanos the wall time the pass took
+/// @param allocatedBytes the bytes allocated by the pass, `-1` if the JVM can't measure them
+/// @param nodesBefore the number of live nodes before the pass ran
+/// @param nodesAfter the number of live nodes after the pass ran
+public record PassStatistics(
+    String function,
+    String pass,
+    int iteration,
+    long nanos,
+    long allocatedBytes,
+    int nodesBefore,
+    int nodesAfter
+) {
+
+    @Override
+    public String toString() {
+        return this.function + " " + this.pass + " #" + this.iteration + ": " + this.nanos / 1000 + " us, "
+            + (this.allocatedBytes < 0 ? "?" : this.allocatedBytes / 1024) + " KiB, "
+            + this.nodesBefore + " -> " + this.nodesAfter + " nodes";
+    }
+}
@@ -0,0 +1,104 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.node.AddNode;
+import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.MulNode;
+import edu.kit.kastel.vads.compiler.ir.node.MulhNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.ShlNode;
+import edu.kit.kastel.vads.compiler.ir.node.ShrNode;
+import edu.kit.kastel.vads.compiler.ir.node.ShrsNode;
+import edu.kit.kastel.vads.compiler.ir.node.SubNode;
+import org.jspecify.annotations.Nullable;
+
+/// The binary operations without side effects, which can be deduplicated freely.
+public enum PureBinaryOperation {
+    ADD(AddNode.class, true) {
+        @Override
+        BinaryOperationNode create(Block block, Node left, Node right) {
+            return new AddNode(block, left, right);
+        }
+    },
+    SUB(SubNode.class, false) {
+        @Override
+        BinaryOperationNode create(Block block, Node left, Node right) {
+            return new SubNode(block, left, right);
+        }
+    },
+    MUL(MulNode.class, true) {
+        @Override
+        BinaryOperationNode create(Block block, Node left, Node right) {
+            return new MulNode(block, left, right);
+        }
+    },
+    MULH(MulhNode.class, true) {
+        @Override
+        BinaryOperationNode create(Block block, Node left, Node right) {
+            return new MulhNode(block, left, right);
+        }
+    },
+    SHL(ShlNode.class, false) {
+        @Override
+        BinaryOperationNode create(Block block, Node left, Node right) {
+            return new ShlNode(block, left, right);
+        }
+    },
+    SHR(ShrNode.class, false) {
+        @Override
+        BinaryOperationNode create(Block block, Node left, Node right) {
+            return new ShrNode(block, left, right);
+        }
+    },
+    SHRS(ShrsNode.class, false) {
+        @Override
+        BinaryOperationNode create(Block block, Node left, Node right) {
+            return new ShrsNode(block, left, right);
+        }
+    };
+
+    private static final PureBinaryOperation[] OPERATIONS = values();
+
+    private final Class<? extends BinaryOperationNode> type;
+    private final boolean commutative;
+
+    PureBinaryOperation(Class<? extends BinaryOperationNode> type, boolean commutative) {
+        this.type = type;
+        this.commutative = commutative;
+    }
+
+    abstract BinaryOperationNode create(Block block, Node left, Node right);
+
+    /// {@return the result of this operation for constant operands}
+    public int evaluate(int left, int right) {
+        return switch (this) {
+            case ADD -> left + right;
+            case SUB -> left - right;
+            case MUL -> left * right;
+            case MULH -> (int) (((long) left * right) >> 32);
+            // Java masks the shift amount like x86 does
+            case SHL -> left << right;
+            case SHR -> left >>> right;
+            case SHRS -> left >> right;
+        };
+    }
+
+    public boolean isCommutative() {
+        return this.commutative;
+    }
+
+    /// {@return the operation the given node is an instance of, or `null` if it is not a pure operation}
+    public static @Nullable PureBinaryOperation of(Node node) {
+        for (PureBinaryOperation operation : OPERATIONS) {
+            if (operation.matches(node)) {
+                return operation;
+            }
+        }
+        return null;
+    }
+
+    /// {@return whether the given node is an instance of this operation}
+    public boolean matches(Node node) {
+        return node.getClass() == this.type;
+    }
+}
@@ -0,0 +1,161 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivModNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivNode;
+import edu.kit.kastel.vads.compiler.ir.node.ModNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.Phi;
+import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import edu.kit.kastel.vads.compiler.ir.util.NodeSupport;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/// Constant propagation following
+/// [`Constant Propagation with Conditional Branches`](https://dl.acm.org/doi/10.1145/103135.103136)
+/// by Wegman and Zadeck.
+///
+/// Every value starts as undefined and only moves down the lattice: undefined, a single constant,
+/// or varying. Whenever a value changes, its users are evaluated again. As the IR has no conditional
+/// jumps yet, all blocks are considered executable and phis meet all of their operands.
+///
+/// Arithmetic follows Java `int` semantics, which wrap around like the target. Divisions are only
+/// folded if they can't trap, i.e. the divisor is neither `0` nor `-1` with [Integer#MIN_VALUE]
+/// as dividend. Afterwards, all non-constant nodes that have a constant value are replaced by constants.
+public class SparseConditionalConstantPropagation implements GraphOptimizer {
+    private static final byte UNDEFINED = 0;
+    private static final byte CONSTANT = 1;
+    private static final byte VARYING = 2;
+
+    private byte[] states = new byte[0];
+    private int[] constants = new int[0];
+
+    @Override
+    public boolean optimize(IrGraph graph) {
+        List<Node> nodes = GraphTraversal.postOrder(graph);
+        this.states = new byte[graph.nodeCount()];
+        this.constants = new int[graph.nodeCount()];
+
+        // inputs come first in post-order, so most nodes are final after their first evaluation
+        Deque<Node> worklist = new ArrayDeque<>(nodes);
+        while (!worklist.isEmpty()) {
+            Node node = worklist.poll();
+            if (evaluate(node)) {
+                for (int use = 0; use < node.useCount(); use++) {
+                    worklist.add(node.user(use));
+                }
+            }
+        }
+        return rewrite(graph, nodes);
+    }
+
+    /// {@return whether the value of the node moved down the lattice}
+    private boolean evaluate(Node node) {
+        byte oldState = this.states[node.id()];
+        int oldConstant = this.constants[node.id()];
+        switch (node) {
+            case ConstIntNode c -> setConstant(c, c.value());
+            case DivModNode _ -> this.states[node.id()] = VARYING; // its values are projections
+            case BinaryOperationNode binary -> binary(binary);
+            case ProjNode proj when proj.projectionInfo() == ProjNode.SimpleProjectionInfo.RESULT ->
+                copy(proj, proj.predecessor(ProjNode.IN));
+            case Phi phi -> phi(phi);
+            default -> this.states[node.id()] = VARYING;
+        }
+        return oldState != this.states[node.id()] || oldConstant != this.constants[node.id()];
+    }
+
+    private void binary(BinaryOperationNode node) {
+        Node left = node.predecessor(BinaryOperationNode.LEFT);
+        Node right = node.predecessor(BinaryOperationNode.RIGHT);
+        byte leftState = this.states[left.id()];
+        byte rightState = this.states[right.id()];
+        if (leftState == VARYING || rightState == VARYING) {
+            this.states[node.id()] = VARYING;
+            return;
+        }
+        if (leftState == UNDEFINED || rightState == UNDEFINED) {
+            return;
+        }
+        int l = this.constants[left.id()];
+        int r = this.constants[right.id()];
+        switch (node) {
+            case DivNode _ when canDivide(l, r) -> setConstant(node, l / r);
+            case ModNode _ when canDivide(l, r) -> setConstant(node, l % r);
+            case DivNode _, ModNode _ -> this.states[node.id()] = VARYING; // the division traps at runtime
+            default -> setConstant(node, PureBinaryOperation.of(node).evaluate(l, r));
+        }
+    }
+
+    private static boolean canDivide(int dividend, int divisor) {
+        return divisor != 0 && !(dividend == Integer.MIN_VALUE && divisor == -1);
+    }
+
+    private void phi(Phi phi) {
+        for (int i = 0; i < phi.predecessorCount(); i++) {
+            Node operand = phi.predecessor(i);
+            byte state = this.states[operand.id()];
+            if (state == VARYING) {
+                this.states[phi.id()] = VARYING;
+                return;
+            }
+            if (state == CONSTANT) {
+                if (this.states[phi.id()] == CONSTANT && this.constants[phi.id()] != this.constants[operand.id()]) {
+                    this.states[phi.id()] = VARYING;
+                    return;
+                }
+                setConstant(phi, this.constants[operand.id()]);
+            }
+        }
+    }
+
+    private void copy(Node node, Node from) {
+        this.states[node.id()] = this.states[from.id()];
+        this.constants[node.id()] = this.constants[from.id()];
+    }
+
+    private void setConstant(Node node, int value) {
+        this.states[node.id()] = CONSTANT;
+        this.constants[node.id()] = value;
+    }
+
+    private boolean rewrite(IrGraph graph, List<Node> nodes) {
+        Map<Integer, Node> constantNodes = new HashMap<>();
+        for (Node node : nodes) {
+            if (node instanceof ConstIntNode c && c.block() == graph.startBlock()) {
+                constantNodes.putIfAbsent(c.value(), c);
+            }
+        }
+        boolean changed = false;
+        for (Node node : nodes) {
+            if (this.states[node.id()] != CONSTANT || node instanceof ConstIntNode) {
+                continue;
+            }
+            switch (node) {
+                case DivNode _, ModNode _ -> NodeSupport.replaceDivision(node, constant(graph, constantNodes, node));
+                case ProjNode _ -> {
+                    // replaced together with its division
+                }
+                default -> {
+                    node.replaceAllUsesWith(constant(graph, constantNodes, node));
+                    node.clearPredecessors();
+                }
+            }
+            changed = true;
+        }
+        return changed;
+    }
+
+    private Node constant(IrGraph graph, Map<Integer, Node> constantNodes, Node node) {
+        return constantNodes.computeIfAbsent(
+            this.constants[node.id()], value -> new ConstIntNode(graph.startBlock(), value)
+        );
+    }
+}
@@ -1,16 +1,16 @@
 package edu.kit.kastel.vads.compiler.ir.util;
 
-/// This is a dirty trick as we don't have Scoped Values.
-/// It allows tracking debug info without having to pass it
-/// down all the layers.
+/// Tracks the debug info for newly created nodes without having to pass it
+/// down all the layers. Each [edu.kit.kastel.vads.compiler.ir.IrGraph] has its own helper,
+/// so graphs can be constructed concurrently.
 public final class DebugInfoHelper {
-    private static DebugInfo debugInfo = DebugInfo.NoInfo.INSTANCE;
+    private DebugInfo debugInfo = DebugInfo.NoInfo.INSTANCE;
 
-    public static void setDebugInfo(DebugInfo debugInfo) {
-        DebugInfoHelper.debugInfo = debugInfo;
+    public void setDebugInfo(DebugInfo debugInfo) {
+        this.debugInfo = debugInfo;
     }
 
-    public static DebugInfo getDebugInfo() {
-        return debugInfo;
+    public DebugInfo getDebugInfo() {
+        return this.debugInfo;
     }
 }
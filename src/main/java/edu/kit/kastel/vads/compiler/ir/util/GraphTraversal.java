@@ -0,0 +1,59 @@
+package edu.kit.kastel.vads.compiler.ir.util;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/// Depth-first traversals of an [IrGraph] along the predecessor edges, starting at the end block.
+///
+/// The traversals use an explicit stack instead of recursion, so arbitrarily long dependency chains
+/// don't overflow the Java stack. Predecessors are visited in the order of their index.
+public final class GraphTraversal {
+
+    private GraphTraversal() {
+
+    }
+
+    /// {@return all nodes reachable from the end block, each after all of its predecessors}
+    /// This is the order the code generators emit instructions in.
+    public static List<Node> postOrder(IrGraph graph) {
+        List<Node> order = new ArrayList<>();
+        NodeSet visited = new NodeSet(graph);
+        Node[] stack = new Node[16];
+        // the index of the next predecessor to visit for each node on the stack
+        int[] next = new int[16];
+        int depth = 0;
+
+        visited.add(graph.endBlock());
+        stack[depth++] = graph.endBlock();
+        while (depth > 0) {
+            Node node = stack[depth - 1];
+            int idx = next[depth - 1];
+            if (idx < node.predecessorCount()) {
+                next[depth - 1] = idx + 1;
+                Node predecessor = node.predecessor(idx);
+                if (visited.add(predecessor)) {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                        next = Arrays.copyOf(next, depth * 2);
+                    }
+                    stack[depth] = predecessor;
+                    next[depth] = 0;
+                    depth++;
+                }
+            } else {
+                order.add(node);
+                stack[--depth] = null;
+            }
+        }
+        return order;
+    }
+
+    /// {@return all nodes reachable from the end block, each before all of its predecessors}
+    public static List<Node> reversePostOrder(IrGraph graph) {
+        return postOrder(graph).reversed();
+    }
+}
@@ -6,50 +6,43 @@ import edu.kit.kastel.vads.compiler.ir.node.Block;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 /// Outputs a DOT format string to visualize an [IrGraph].
 public class GraphVizPrinter {
-    private final Map<Block, Set<Node>> clusters = new HashMap<>();
+    private final NodeMap<List<Node>> clusters;
     private final List<Edge> edges = new ArrayList<>();
-    private final Map<Node, Integer> ids = new HashMap<>();
+    private final NodeMap<Integer> ids;
     private final StringBuilder builder = new StringBuilder();
     private final IrGraph graph;
     private int counter = 0;
 
     public GraphVizPrinter(IrGraph graph) {
         this.graph = graph;
+        this.clusters = new NodeMap<>(graph);
+        this.ids = new NodeMap<>(graph);
     }
 
     public static String print(IrGraph graph) {
         GraphVizPrinter printer = new GraphVizPrinter(graph);
-        printer.prepare(graph.endBlock(), new HashSet<>());
+        for (Node node : GraphTraversal.postOrder(graph)) {
+            printer.prepare(node);
+        }
         printer.print();
         return printer.builder.toString();
     }
 
-    private void prepare(Node node, Set<Node> seen) {
-        if (!seen.add(node)) {
-            return;
-        }
-
+    private void prepare(Node node) {
         if (!(node instanceof Block)) {
-            this.clusters.computeIfAbsent(node.block(), _ -> Collections.newSetFromMap(new IdentityHashMap<>()))
+            this.clusters.computeIfAbsent(node.block(), _ -> new ArrayList<>())
                 .add(node);
         }
-        int idx = 0;
-        for (Node predecessor : node.predecessors()) {
-            this.edges.add(new Edge(predecessor, node, idx++));
-            prepare(predecessor, seen);
+        for (int idx = 0; idx < node.predecessorCount(); idx++) {
+            Node predecessor = node.predecessor(idx);
+            this.edges.add(new Edge(predecessor, node, idx));
         }
         if (node == this.graph.endBlock()) {
-            this.clusters.put(this.graph.endBlock(), Set.of());
+            this.clusters.put(this.graph.endBlock(), List.of());
         }
     }
 
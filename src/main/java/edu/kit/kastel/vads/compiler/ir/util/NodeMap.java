@@ -0,0 +1,105 @@
+package edu.kit.kastel.vads.compiler.ir.util;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/// A map from the nodes of a single [IrGraph] to values, backed by an array indexed by [Node#id()].
+/// Unlike [java.util.HashMap], lookups don't hash and don't allocate.
+/// The array grows on demand up to the largest id used as key, so maps keyed by blocks stay small.
+public final class NodeMap<T> {
+    private final IrGraph graph;
+    private @Nullable Node[] keys;
+    private @Nullable Object[] values;
+    private int size;
+
+    public NodeMap(IrGraph graph) {
+        this.graph = graph;
+        this.keys = new Node[0];
+        this.values = new Object[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    public @Nullable T get(Node node) {
+        int id = checkedId(node);
+        return id < this.values.length ? (T) this.values[id] : null;
+    }
+
+    public T getOrDefault(Node node, T defaultValue) {
+        T value = get(node);
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean containsKey(Node node) {
+        return get(node) != null;
+    }
+
+    /// {@return the previous value associated with the node, or `null` if there was none}
+    public @Nullable T put(Node node, T value) {
+        int id = checkedId(node);
+        ensureCapacity(id);
+        T previous = get(node);
+        if (previous == null) {
+            this.size++;
+        }
+        this.keys[id] = node;
+        this.values[id] = value;
+        return previous;
+    }
+
+    public T computeIfAbsent(Node node, Function<? super Node, ? extends T> mappingFunction) {
+        T value = get(node);
+        if (value == null) {
+            value = mappingFunction.apply(node);
+            put(node, value);
+        }
+        return value;
+    }
+
+    public @Nullable T remove(Node node) {
+        T previous = get(node);
+        if (previous != null) {
+            int id = node.id();
+            this.keys[id] = null;
+            this.values[id] = null;
+            this.size--;
+        }
+        return previous;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /// Iterates the entries ordered by the ids of their nodes.
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super Node, ? super T> action) {
+        for (int id = 0; id < this.keys.length; id++) {
+            Node key = this.keys[id];
+            if (key != null) {
+                action.accept(key, (T) this.values[id]);
+            }
+        }
+    }
+
+    private int checkedId(Node node) {
+        assert node.graph() == this.graph : node + " is not part of " + this.graph.name();
+        return node.id();
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= this.keys.length) {
+            int capacity = Math.max(id + 1, this.keys.length * 2);
+            this.keys = Arrays.copyOf(this.keys, capacity);
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package edu.kit.kastel.vads.compiler.ir.util;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+
+import java.util.BitSet;
+
+/// A set of nodes of a single [IrGraph], backed by a [BitSet] indexed by [Node#id()].
+public final class NodeSet {
+    private final IrGraph graph;
+    private final BitSet bits;
+
+    public NodeSet(IrGraph graph) {
+        this.graph = graph;
+        this.bits = new BitSet();
+    }
+
+    /// {@return `true` if the node was not contained before}
+    public boolean add(Node node) {
+        int id = checkedId(node);
+        if (this.bits.get(id)) {
+            return false;
+        }
+        this.bits.set(id);
+        return true;
+    }
+
+    public boolean contains(Node node) {
+        return this.bits.get(checkedId(node));
+    }
+
+    /// {@return `true` if the node was contained before}
+    public boolean remove(Node node) {
+        int id = checkedId(node);
+        boolean contained = this.bits.get(id);
+        this.bits.clear(id);
+        return contained;
+    }
+
+    public int size() {
+        return this.bits.cardinality();
+    }
+
+    private int checkedId(Node node) {
+        assert node.graph() == this.graph : node + " is not part of " + this.graph.name();
+        return node.id();
+    }
+}
@@ -1,5 +1,7 @@
 package edu.kit.kastel.vads.compiler.ir.util;
 
+import edu.kit.kastel.vads.compiler.ir.node.DivNode;
+import edu.kit.kastel.vads.compiler.ir.node.ModNode;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
 import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
 
@@ -8,9 +10,31 @@ public final class NodeSupport {
 
     }
 
+    /// Removes a division that is no longer needed. Users of its result get `result` instead,
+    /// users of its side effect get the side effect the division depended on.
+    public static void replaceDivision(Node division, Node result) {
+        Node sideEffect = division.predecessor(division instanceof DivNode ? DivNode.SIDE_EFFECT : ModNode.SIDE_EFFECT);
+        replaceDivision(division, result, sideEffect);
+    }
+
+    /// Removes a division whose result and side effect are provided by other nodes.
+    public static void replaceDivision(Node division, Node result, Node sideEffect) {
+        while (division.useCount() > 0) {
+            ProjNode proj = (ProjNode) division.user(0);
+            if (proj.projectionInfo() == ProjNode.SimpleProjectionInfo.SIDE_EFFECT) {
+                proj.replaceAllUsesWith(sideEffect);
+            } else {
+                proj.replaceAllUsesWith(result);
+            }
+            proj.clearPredecessors();
+        }
+        division.clearPredecessors();
+    }
+
     public static Node predecessorSkipProj(Node node, int predIdx) {
         Node pred = node.predecessor(predIdx);
-        if (pred instanceof ProjNode) {
+        // the projections of a DivModNode are values on their own
+        if (pred instanceof ProjNode proj && proj.projectionInfo() instanceof ProjNode.SimpleProjectionInfo) {
             return pred.predecessor(ProjNode.IN);
         }
         return pred;
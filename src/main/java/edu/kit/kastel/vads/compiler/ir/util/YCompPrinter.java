@@ -11,54 +11,42 @@ import edu.kit.kastel.vads.compiler.ir.node.ProjNode.SimpleProjectionInfo;
 import edu.kit.kastel.vads.compiler.ir.node.ReturnNode;
 import edu.kit.kastel.vads.compiler.ir.node.StartNode;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.Set;
 import java.util.StringJoiner;
 import java.util.stream.IntStream;
 
 public class YCompPrinter {
 
-    private final Map<Block, Set<Node>> clusters = new HashMap<>();
-    private final Map<Node, Integer> ids = new HashMap<>();
+    private final NodeMap<List<Node>> clusters;
+    private final NodeMap<Integer> ids;
     private final IrGraph graph;
     private int nodeCounter = 0;
     private int blockCounter = 0;
 
     public YCompPrinter(IrGraph graph) {
         this.graph = graph;
+        this.clusters = new NodeMap<>(graph);
+        this.ids = new NodeMap<>(graph);
     }
 
-    private void prepare(Node node, Set<Node> seen) {
-        if (!seen.add(node)) {
-            return;
-        }
-
+    private void prepare(Node node) {
         if (!(node instanceof Block)) {
-            this.clusters.computeIfAbsent(
-                    node.block(),
-                    _ -> Collections.newSetFromMap(new IdentityHashMap<>())
-                )
+            this.clusters.computeIfAbsent(node.block(), _ -> new ArrayList<>())
                 .add(node);
         }
-        for (Node predecessor : node.predecessors()) {
-            prepare(predecessor, seen);
-        }
         if (node == this.graph.endBlock()) {
-            this.clusters.put(this.graph.endBlock(), Set.of());
+            this.clusters.put(this.graph.endBlock(), List.of());
         }
     }
 
     public static String print(IrGraph graph) {
         YCompPrinter printer = new YCompPrinter(graph);
-        printer.prepare(graph.endBlock(), new HashSet<>());
+        for (Node node : GraphTraversal.postOrder(graph)) {
+            printer.prepare(node);
+        }
         return printer.dumpGraphAsString();
     }
 
@@ -98,16 +86,16 @@ public class YCompPrinter {
         result.append("\n  label: ").append('"').append(name).append('"');
         result.append("\n  color: ").append(VcgColor.ROOT_BLOCK.id());
 
-        for (Entry<Block, Set<Node>> entry : this.clusters.entrySet()) {
-            result.append("\n").append(formatBlock(entry.getKey(), entry.getValue()).indent(2));
-        }
+        this.clusters.forEach((block, nodes) ->
+            result.append("\n").append(formatBlock((Block) block, nodes).indent(2))
+        );
 
         result.append("}");
 
         return result.toString();
     }
 
-    private String formatBlock(Block block, Set<Node> nodes) {
+    private String formatBlock(Block block, List<Node> nodes) {
         StringBuilder result = new StringBuilder("graph: {");
         result.append("\n  title: " + '"').append(nodeTitle(block)).append('"');
         result.append("\n  label: " + '"').append(nodeLabel(block)).append('"');
@@ -142,7 +130,7 @@ public class YCompPrinter {
     }
 
     private String formatInputEdges(Node node) {
-        var edges = IntStream.range(0, node.predecessors().size())
+        var edges = IntStream.range(0, node.predecessorCount())
             .mapToObj(
                 idx -> new Edge(
                     node.predecessor(idx), node, idx, edgeColor(node.predecessor(idx), node)
@@ -164,8 +152,8 @@ public class YCompPrinter {
 
     private String formatControlflowEdges(Block block) {
         StringJoiner result = new StringJoiner("\n");
-        List<? extends Node> parents = block.predecessors();
-        for (Node parent : parents) {
+        for (int i = 0; i < block.predecessorCount(); i++) {
+            Node parent = block.predecessor(i);
             if (parent instanceof ReturnNode) {
                 // Return needs no label
                 result.add(formatControlflowEdge(parent, block, ""));
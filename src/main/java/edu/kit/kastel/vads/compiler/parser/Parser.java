@@ -31,6 +31,7 @@ import edu.kit.kastel.vads.compiler.parser.type.BasicType;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class Parser {
     private final TokenSource tokenSource;
@@ -40,11 +41,19 @@ public class Parser {
     }
 
     public ProgramTree parseProgram() {
-        ProgramTree programTree = new ProgramTree(List.of(parseFunction()));
+        List<FunctionTree> functions = new ArrayList<>();
+        parseProgram(functions::add);
+        return new ProgramTree(functions);
+    }
+
+    /// Parses a program without building a [ProgramTree]. Each function is passed to `functions` as soon
+    /// as it is parsed, before the tokens of the next one are read. The consumer should therefore not rely on
+    /// the rest of the input being valid.
+    public void parseProgram(Consumer<FunctionTree> functions) {
+        functions.accept(parseFunction());
         if (this.tokenSource.hasMore()) {
             throw new ParseException("expected end of input but got " + this.tokenSource.peek());
         }
-        return programTree;
     }
 
     private FunctionTree parseFunction() {
@@ -10,28 +10,32 @@ import edu.kit.kastel.vads.compiler.lexer.Separator;
 import edu.kit.kastel.vads.compiler.lexer.Separator.SeparatorType;
 import edu.kit.kastel.vads.compiler.lexer.Token;
 
+import org.jspecify.annotations.Nullable;
+
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.function.Supplier;
 
+/// Lazily pulls tokens from the lexer, so only the token after the current position is kept in memory.
 public class TokenSource {
-    private final List<Token> tokens;
-    private int idx;
+    private final Supplier<Optional<Token>> tokens;
+    private @Nullable Token next;
+    private boolean exhausted;
 
     public TokenSource(Lexer lexer) {
-        this.tokens = Stream.generate(lexer::nextToken)
-            .takeWhile(Optional::isPresent)
-            .map(Optional::orElseThrow)
-            .toList();
+        this.tokens = lexer::nextToken;
     }
 
     TokenSource(List<Token> tokens) {
-        this.tokens = List.copyOf(tokens);
+        Iterator<Token> iterator = List.copyOf(tokens).iterator();
+        this.tokens = () -> iterator.hasNext() ? Optional.of(iterator.next()) : Optional.empty();
     }
 
     public Token peek() {
         expectHasMore();
-        return this.tokens.get(this.idx);
+        return Objects.requireNonNull(this.next);
     }
 
     public Keyword expectKeyword(KeywordType type) {
@@ -39,7 +43,7 @@ public class TokenSource {
         if (!(token instanceof Keyword kw) || kw.type() != type) {
             throw new ParseException("expected keyword '" + type + "' but got " + token);
         }
-        this.idx++;
+        this.next = null;
         return kw;
     }
 
@@ -48,7 +52,7 @@ public class TokenSource {
         if (!(token instanceof Separator sep) || sep.type() != type) {
             throw new ParseException("expected separator '" + type + "' but got " + token);
         }
-        this.idx++;
+        this.next = null;
         return sep;
     }
 
@@ -57,7 +61,7 @@ public class TokenSource {
         if (!(token instanceof Operator op) || op.type() != type) {
             throw new ParseException("expected operator '" + type + "' but got " + token);
         }
-        this.idx++;
+        this.next = null;
         return op;
     }
     public Identifier expectIdentifier() {
@@ -65,22 +69,27 @@ public class TokenSource {
         if (!(token instanceof Identifier ident)) {
             throw new ParseException("expected identifier but got " + token);
         }
-        this.idx++;
+        this.next = null;
         return ident;
     }
 
     public Token consume() {
         Token token = peek();
-        this.idx++;
+        this.next = null;
         return token;
     }
 
     public boolean hasMore() {
-        return this.idx < this.tokens.size();
+        if (this.next == null && !this.exhausted) {
+            Optional<Token> token = this.tokens.get();
+            this.next = token.orElse(null);
+            this.exhausted = token.isEmpty();
+        }
+        return this.next != null;
     }
 
     private void expectHasMore() {
-        if (this.idx >= this.tokens.size()) {
+        if (!hasMore()) {
             throw new ParseException("reached end of file");
         }
     }
@@ -1,13 +1,14 @@
 package edu.kit.kastel.vads.compiler.semantic;
 
-import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.ast.Tree;
 import edu.kit.kastel.vads.compiler.parser.visitor.RecursivePostorderVisitor;
 
 public class SemanticAnalysis {
 
-    private final ProgramTree program;
+    private final Tree program;
 
-    public SemanticAnalysis(ProgramTree program) {
+    /// @param program the whole program or a single function of it
+    public SemanticAnalysis(Tree program) {
         this.program = program;
     }
 
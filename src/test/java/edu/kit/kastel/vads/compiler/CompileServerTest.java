@@ -0,0 +1,126 @@
+package edu.kit.kastel.vads.compiler;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/// Compiles programs through a server running in this JVM, as `compiler --client` does.
+class CompileServerTest {
+    @TempDir
+    static Path serverDirectory;
+    private static Path socket;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void startServer() throws IOException, InterruptedException {
+        socket = serverDirectory.resolve("compiler.sock");
+        Thread server = new Thread(() -> {
+            try {
+                CompileServer.serve(socket);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        // serve never returns
+        server.setDaemon(true);
+        server.start();
+        while (!accepts(socket)) {
+            assertTrue(server.isAlive(), "the server did not start");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void validProgramHasNoDiagnostics() throws IOException, InterruptedException {
+        assumeTrue(gccAvailable(), "gcc is needed to link the program");
+        Files.writeString(this.directory.resolve("valid.l1"), "int main() { return 6 * 7; }\n");
+        Response response = request("valid.l1", "valid");
+
+        assertEquals(0, response.exitCode());
+        assertEquals("", response.diagnostics());
+        Process process = new ProcessBuilder(this.directory.resolve("valid").toString()).start();
+        assertEquals(42, process.waitFor());
+    }
+
+    @Test
+    void parseErrorIsReported() throws IOException {
+        Files.writeString(this.directory.resolve("invalid.l1"), "int main() { return 1 }\n");
+        Response response = request("invalid.l1", "invalid");
+
+        assertEquals(42, response.exitCode());
+        assertTrue(response.diagnostics().contains("ParseException"), response.diagnostics());
+    }
+
+    @Test
+    void stackOverflowIsReported() throws IOException {
+        String expression = "(".repeat(100_000) + "1" + ")".repeat(100_000);
+        Files.writeString(this.directory.resolve("deep.l1"), "int main() { return " + expression + "; }\n");
+        Response response = request("deep.l1", "deep");
+
+        assertEquals(1, response.exitCode());
+        assertTrue(response.diagnostics().startsWith("java.lang.StackOverflowError"), response.diagnostics());
+    }
+
+    @Test
+    void runningServerIsNotReplaced() {
+        assertThrows(FileAlreadyExistsException.class, () -> CompileServer.serve(socket));
+        assertTrue(accepts(socket));
+    }
+
+    @Test
+    void otherFileIsNotReplaced() throws IOException {
+        Path file = Files.writeString(this.directory.resolve("file"), "not a socket");
+
+        assertThrows(FileAlreadyExistsException.class, () -> CompileServer.serve(file));
+        assertEquals("not a socket", Files.readString(file));
+    }
+
+    private Response request(String... args) throws IOException {
+        ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+        int exitCode;
+        try (PrintStream err = new PrintStream(diagnostics, true, StandardCharsets.UTF_8)) {
+            exitCode = CompileServer.request(socket, this.directory, args, err);
+        }
+        return new Response(exitCode, diagnostics.toString(StandardCharsets.UTF_8));
+    }
+
+    private record Response(int exitCode, String diagnostics) {
+    }
+
+    private static boolean accepts(Path socket) {
+        try (SocketChannel _ = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            return true;
+        } catch (IOException _) {
+            return false;
+        }
+    }
+
+    private static boolean gccAvailable() {
+        try {
+            return new ProcessBuilder("gcc", "--version").start().waitFor() == 0;
+        } catch (IOException _) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+import edu.kit.kastel.vads.compiler.backend.aasm.VirtualRegister;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PhiLoweringTest {
+    private static final int LOCATIONS = 8;
+
+    @Test
+    void swapsTwoCycle() {
+        List<Copy> sequence = PhiLowering.sequentialize(List.of(move(0, 1), move(1, 0)));
+        assertEquals(1, sequence.size());
+        assertSameAsParallel(List.of(move(0, 1), move(1, 0)), sequence);
+    }
+
+    @Test
+    void rotatesThreeCycle() {
+        List<Copy> parallelCopy = List.of(move(0, 1), move(1, 2), move(2, 0));
+        assertSameAsParallel(parallelCopy, PhiLowering.sequentialize(parallelCopy));
+    }
+
+    @Test
+    void copiesOneSourceToManyTargets() {
+        List<Copy> parallelCopy = List.of(move(0, 1), move(0, 2), move(1, 0), move(2, 3));
+        assertSameAsParallel(parallelCopy, PhiLowering.sequentialize(parallelCopy));
+    }
+
+    @Test
+    void loadsConstantsAfterTheirTargetIsRead() {
+        List<Copy> parallelCopy = List.of(new Copy.LoadConstant(-5, register(0)), move(0, 1), move(1, 2));
+        assertSameAsParallel(parallelCopy, PhiLowering.sequentialize(parallelCopy));
+    }
+
+    @Test
+    void dropsCoalescedMoves() {
+        assertEquals(List.of(), PhiLowering.sequentialize(List.of(move(3, 3), move(4, 4))));
+    }
+
+    @Test
+    void matchesParallelCopiesOfRandomPermutations() {
+        Random random = new Random(0);
+        for (int round = 0; round < 10_000; round++) {
+            List<Integer> targets = new ArrayList<>();
+            for (int i = 0; i < LOCATIONS; i++) {
+                targets.add(i);
+            }
+            Collections.shuffle(targets, random);
+            List<Copy> parallelCopy = new ArrayList<>();
+            for (int target : targets.subList(0, 1 + random.nextInt(LOCATIONS))) {
+                parallelCopy.add(switch (random.nextInt(4)) {
+                    case 0 -> new Copy.LoadConstant(random.nextInt(), register(target));
+                    // a permutation makes cycles likely, a random source adds fan-out
+                    case 1 -> move(random.nextInt(LOCATIONS), target);
+                    default -> move(targets.get(target), target);
+                });
+            }
+            assertSameAsParallel(parallelCopy, PhiLowering.sequentialize(parallelCopy));
+        }
+    }
+
+    private static void assertSameAsParallel(List<Copy> parallelCopy, List<Copy> sequence) {
+        int[] initial = new int[LOCATIONS];
+        for (int i = 0; i < LOCATIONS; i++) {
+            initial[i] = 100 + i;
+        }
+        int[] expected = initial.clone();
+        for (Copy copy : parallelCopy) {
+            switch (copy) {
+                case Copy.Move(var source, var target) -> expected[id(target)] = initial[id(source)];
+                case Copy.LoadConstant(var value, var target) -> expected[id(target)] = value;
+                case Copy.Swap _ -> throw new AssertionError("swap in a parallel copy");
+            }
+        }
+        int[] actual = initial.clone();
+        for (Copy copy : sequence) {
+            switch (copy) {
+                case Copy.Move(var source, var target) -> actual[id(target)] = actual[id(source)];
+                case Copy.LoadConstant(var value, var target) -> actual[id(target)] = value;
+                case Copy.Swap(var first, var second) -> {
+                    int value = actual[id(first)];
+                    actual[id(first)] = actual[id(second)];
+                    actual[id(second)] = value;
+                }
+            }
+        }
+        assertArrayEquals(expected, actual, () -> parallelCopy + " sequentialized to " + sequence);
+    }
+
+    private static Copy.Move move(int source, int target) {
+        return new Copy.Move(register(source), register(target));
+    }
+
+    private static Register register(int id) {
+        return new VirtualRegister(id);
+    }
+
+    private static int id(Register register) {
+        return ((VirtualRegister) register).id();
+    }
+}
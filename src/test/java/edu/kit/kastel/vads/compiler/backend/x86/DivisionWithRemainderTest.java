@@ -0,0 +1,123 @@
+package edu.kit.kastel.vads.compiler.backend.x86;
+
+import edu.kit.kastel.vads.compiler.backend.regalloc.RegisterAllocator;
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.SsaTranslation;
+import edu.kit.kastel.vads.compiler.ir.node.DivModNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
+import edu.kit.kastel.vads.compiler.ir.optimize.DivModFusion;
+import edu.kit.kastel.vads.compiler.ir.util.GraphTraversal;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/// Runs fused divisions where only the quotient, only the remainder or both are used.
+/// An unused projection may share its register with the used one, so it must not be written.
+/// The projections are tried in both orders of the use list of the [DivModNode].
+class DivisionWithRemainderTest {
+    private static final int DIVIDEND = 1000;
+    private static final int DIVISOR = 7;
+
+    static Stream<Arguments> programs() {
+        List<String> results = List.of("r", "q", "q * 10 + r", "r - q");
+        List<Supplier<RegisterAllocator>> allocators = List.of(
+            X86RegisterAllocator::linearScan, X86RegisterAllocator::chordal, X86RegisterAllocator::new
+        );
+        return results.stream().flatMap(result -> allocators.stream().flatMap(allocator -> Stream.of(
+            Arguments.of(result, allocator, false),
+            Arguments.of(result, allocator, true)
+        )));
+    }
+
+    @ParameterizedTest
+    @MethodSource("programs")
+    void writesUsedProjections(
+        String result,
+        Supplier<RegisterAllocator> allocator,
+        boolean quotientLast,
+        @TempDir Path directory
+    ) throws IOException, InterruptedException {
+        assumeTrue(gccAvailable(), "gcc is needed to run the generated code");
+        String source = """
+            int main() {
+              int x = %d;
+              int y = %d;
+              int q = x / y;
+              int r = x %% y;
+              return %s;
+            }
+            """.formatted(DIVIDEND, DIVISOR, result);
+        ProgramTree program = new Parser(new TokenSource(Lexer.forString(source))).parseProgram();
+        // no constant folding, so the division reaches the backend
+        IrGraph graph = new SsaTranslation(program.topLevelTrees().getFirst(), node -> node).translate();
+        assertTrue(new DivModFusion().optimize(graph), "division and remainder were not fused");
+        if (quotientLast) {
+            moveQuotientLast(graph);
+        }
+
+        Path assembly = directory.resolve("program.s");
+        Path executable = directory.resolve("program");
+        Files.writeString(assembly, new X86CodeGenerator(allocator.get()).generateCode(List.of(graph)));
+        Gcc.assembleAndLink(assembly, executable, System.err);
+        Process process = new ProcessBuilder(executable.toString()).start();
+        assertEquals(expected(result) & 0xFF, process.waitFor(), source);
+    }
+
+    /// Replaces the quotient projection with a new one, which is added to the end of the use list.
+    private static void moveQuotientLast(IrGraph graph) {
+        for (Node node : GraphTraversal.postOrder(graph)) {
+            if (!(node instanceof DivModNode divMod)) {
+                continue;
+            }
+            for (int i = 0; i < divMod.useCount(); i++) {
+                if (divMod.user(i) instanceof ProjNode proj
+                    && proj.projectionInfo() == ProjNode.DivModProjectionInfo.QUOTIENT) {
+                    proj.replaceAllUsesWith(new ProjNode(proj.block(), divMod, ProjNode.DivModProjectionInfo.QUOTIENT));
+                    proj.clearPredecessors();
+                    return;
+                }
+            }
+        }
+        throw new AssertionError("no quotient in " + graph.name());
+    }
+
+    private static int expected(String result) {
+        int q = DIVIDEND / DIVISOR;
+        int r = DIVIDEND % DIVISOR;
+        return switch (result) {
+            case "r" -> r;
+            case "q" -> q;
+            case "q * 10 + r" -> q * 10 + r;
+            case "r - q" -> r - q;
+            default -> throw new IllegalArgumentException(result);
+        };
+    }
+
+    private static boolean gccAvailable() {
+        try {
+            return new ProcessBuilder("gcc", "--version").start().waitFor() == 0;
+        } catch (IOException _) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package edu.kit.kastel.vads.compiler.ir.optimize;
+
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.node.BinaryOperationNode;
+import edu.kit.kastel.vads.compiler.ir.node.Block;
+import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
+import edu.kit.kastel.vads.compiler.ir.node.DivNode;
+import edu.kit.kastel.vads.compiler.ir.node.ModNode;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.node.ProjNode;
+import edu.kit.kastel.vads.compiler.ir.node.ReturnNode;
+import edu.kit.kastel.vads.compiler.ir.node.StartNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DivisionByConstantLoweringTest {
+    private static final int[] DIVISORS = {
+        2, -2, 3, -3, 4, -4, 5, -5, 7, -7, 8, 10, 641, -641, 1 << 16, 1 << 30, -(1 << 30),
+        Integer.MAX_VALUE, -Integer.MAX_VALUE, 0x7fff_fffe, 1
+    };
+
+    /// The magic numbers listed in `Hacker's Delight`, table 10-1.
+    @Test
+    void computesKnownMagicNumbers() {
+        assertEquals(new DivisionByConstantLowering.Magic(0x5555_5556, 0), DivisionByConstantLowering.Magic.of(3));
+        assertEquals(new DivisionByConstantLowering.Magic(0x6666_6667, 1), DivisionByConstantLowering.Magic.of(5));
+        assertEquals(new DivisionByConstantLowering.Magic(0x9249_2493, 2), DivisionByConstantLowering.Magic.of(7));
+        assertEquals(new DivisionByConstantLowering.Magic(0x9999_9999, 1), DivisionByConstantLowering.Magic.of(-5));
+        assertEquals(new DivisionByConstantLowering.Magic(0x6DB6_DB6D, 2), DivisionByConstantLowering.Magic.of(-7));
+    }
+
+    @Test
+    void lowersDivisionsLikeJava() {
+        for (int divisor : DIVISORS) {
+            for (int dividend : dividends()) {
+                assertEquals(dividend / divisor, lower(dividend, divisor, true), dividend + " / " + divisor);
+            }
+        }
+    }
+
+    @Test
+    void lowersRemaindersLikeJava() {
+        for (int divisor : DIVISORS) {
+            for (int dividend : dividends()) {
+                assertEquals(dividend % divisor, lower(dividend, divisor, false), dividend + " % " + divisor);
+            }
+        }
+    }
+
+    @Test
+    void keepsDivisionsThatCanTrapOrOverflow() {
+        for (int divisor : new int[] {0, -1, Integer.MIN_VALUE}) {
+            IrGraph graph = graph(7, divisor, true);
+            assertFalse(new DivisionByConstantLowering().optimize(graph), "lowered division by " + divisor);
+        }
+    }
+
+    private static List<Integer> dividends() {
+        List<Integer> dividends = new ArrayList<>(List.of(
+            0, 1, -1, 2, -2, 6, -6, 7, -7, 640, 641, -641, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            Integer.MAX_VALUE - 1, Integer.MIN_VALUE + 1, 1 << 30, -(1 << 30)
+        ));
+        Random random = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            dividends.add(random.nextInt());
+        }
+        return dividends;
+    }
+
+    /// Lowers `dividend / divisor` or `dividend % divisor` and evaluates the resulting nodes.
+    private static int lower(int dividend, int divisor, boolean division) {
+        IrGraph graph = graph(dividend, divisor, division);
+        assertTrue(new DivisionByConstantLowering().optimize(graph));
+        Node result = graph.endBlock().predecessor(0).predecessor(ReturnNode.RESULT);
+        return evaluate(result);
+    }
+
+    private static IrGraph graph(int dividend, int divisor, boolean division) {
+        IrGraph graph = new IrGraph("main");
+        Block block = graph.startBlock();
+        Node sideEffect = new ProjNode(block, new StartNode(block), ProjNode.SimpleProjectionInfo.SIDE_EFFECT);
+        Node left = new ConstIntNode(block, dividend);
+        Node right = new ConstIntNode(block, divisor);
+        Node node = division
+            ? new DivNode(block, left, right, sideEffect)
+            : new ModNode(block, left, right, sideEffect);
+        Node ret = new ReturnNode(
+            block,
+            new ProjNode(block, node, ProjNode.SimpleProjectionInfo.SIDE_EFFECT),
+            new ProjNode(block, node, ProjNode.SimpleProjectionInfo.RESULT)
+        );
+        graph.endBlock().addPredecessor(ret);
+        return graph;
+    }
+
+    private static int evaluate(Node node) {
+        if (node instanceof ConstIntNode constant) {
+            return constant.value();
+        }
+        assertFalse(node instanceof DivNode || node instanceof ModNode, "division left in the graph");
+        PureBinaryOperation operation = PureBinaryOperation.of(node);
+        assertNotNull(operation, () -> "unexpected node " + node);
+        return operation.evaluate(
+            evaluate(node.predecessor(BinaryOperationNode.LEFT)),
+            evaluate(node.predecessor(BinaryOperationNode.RIGHT))
+        );
+    }
+}